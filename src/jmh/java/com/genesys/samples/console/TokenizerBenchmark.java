@@ -0,0 +1,45 @@
+package com.genesys.samples.console;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Compares the tokenizer with the regex split parseInput used before, on typical command lines.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TokenizerBenchmark {
+    @Param({
+            "answer 0001234567890abc",
+            "redirect 0001234567890abc 5551234",
+            "aud 0001234567890abc name=\"John Smith\" account=12345",
+            "ts-bulk C:\\data\\terms.txt C:\\data\\out.jsonl 16"
+    })
+    private String line;
+
+    private Tokenizer tokenizer;
+
+    @Setup
+    public void setUp() {
+        this.tokenizer = new Tokenizer();
+    }
+
+    @Benchmark
+    public List<String> tokenize() {
+        return this.tokenizer.tokenize(this.line);
+    }
+
+    @Benchmark
+    public List<String> regexSplit() {
+        return Arrays.asList(this.line.split("\\s+"));
+    }
+}
@@ -0,0 +1,7 @@
+package com.genesys.samples.console;
+
+import com.genesys.workspace.common.WorkspaceApiException;
+
+public interface ApiRequest<T> {
+    T send() throws WorkspaceApiException;
+}
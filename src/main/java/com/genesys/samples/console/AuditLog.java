@@ -0,0 +1,56 @@
+package com.genesys.samples.console;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.genesys.workspace.models.Call;
+import com.genesys.workspace.models.Dn;
+
+// Every call site checks the level first so nothing is formatted or boxed when auditing is off.
+public final class AuditLog {
+    private static final Logger LOGGER = LoggerFactory.getLogger("audit");
+
+    private AuditLog() {
+    }
+
+    public static void command(String command, List<String> args) {
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("command {} {}", command, args);
+        }
+    }
+
+    public static void request(String operation, String connId, boolean failed, long nanos) {
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("request {} connId [{}] {} in [{} us]",
+                    operation, connId, failed ? "failed" : "ok", nanos / 1000);
+        }
+    }
+
+    public static void callEvent(Object notificationType, String previousConnId, Call call) {
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("event CallStateChanged [{}] connId [{}] previousConnId [{}] state [{}] parent [{}]",
+                    notificationType, call.getId(), previousConnId, call.getState(), call.getParentConnId());
+        }
+    }
+
+    public static void dnEvent(Dn dn) {
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("event DnStateChanged dn [{}] state [{}] workMode [{}]",
+                    dn.getNumber(), dn.getAgentState(), dn.getWorkMode());
+        }
+    }
+
+    public static void error(String source, Object message, Object code) {
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("error {} [{}] code [{}]", source, message, code);
+        }
+    }
+
+    public static void error(String source, Throwable e) {
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("error " + source, e);
+        }
+    }
+}
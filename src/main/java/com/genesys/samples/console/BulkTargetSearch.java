@@ -0,0 +1,149 @@
+package com.genesys.samples.console;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import com.genesys.workspace.common.WorkspaceApiException;
+import com.genesys.workspace.models.targets.SearchResult;
+import com.genesys.workspace.models.targets.Target;
+
+public class BulkTargetSearch {
+    private static final long PROGRESS_MILLIS = 1000;
+
+    public interface Search {
+        SearchResult<Target> search(String term) throws WorkspaceApiException;
+    }
+
+    private final Search search;
+    private final int concurrency;
+    private final Consumer<String> log;
+
+    public BulkTargetSearch(Search search, int concurrency, Consumer<String> log) {
+        this.search = search;
+        this.concurrency = Math.max(1, concurrency);
+        this.log = log;
+    }
+
+    public String run(Path input, Path output) throws IOException, InterruptedException {
+        List<String> terms = Files.readAllLines(input, StandardCharsets.UTF_8).stream()
+                .map(String::trim)
+                .filter(t -> !t.isEmpty() && !t.startsWith("#"))
+                .collect(Collectors.toList());
+        boolean json = output.getFileName().toString().endsWith(".jsonl");
+
+        long[] latencies = new long[terms.size()];
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        Semaphore permits = new Semaphore(this.concurrency);
+        ExecutorService executor = Executors.newFixedThreadPool(this.concurrency, r -> {
+            Thread thread = new Thread(r, "ts-bulk");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long start = System.nanoTime();
+        try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            if (!json) {
+                writer.write("term,status,total,returned,latencyMs,error");
+                writer.newLine();
+            }
+
+            long lastProgress = System.currentTimeMillis();
+            for (int i = 0; i < terms.size(); i++) {
+                permits.acquire();
+                int index = i;
+                String term = terms.get(i);
+                executor.execute(() -> {
+                    long begin = System.nanoTime();
+                    String line;
+                    try {
+                        SearchResult<Target> result = this.search.search(term);
+                        latencies[index] = System.nanoTime() - begin;
+                        int returned = result.getTargets() != null ? result.getTargets().size() : 0;
+                        line = format(json, term, "ok", String.valueOf(result.getTotal()), returned, latencies[index], null);
+                    } catch (WorkspaceApiException | RuntimeException e) {
+                        latencies[index] = System.nanoTime() - begin;
+                        failed.incrementAndGet();
+                        line = format(json, term, "error", "", 0, latencies[index], e.getMessage());
+                    }
+
+                    try {
+                        synchronized (writer) {
+                            writer.write(line);
+                            writer.newLine();
+                        }
+                    } catch (IOException e) {
+                        this.log.accept("ts-bulk: failed to write result for [" + term + "]: " + e);
+                    } finally {
+                        completed.incrementAndGet();
+                        permits.release();
+                    }
+                });
+
+                if (System.currentTimeMillis() - lastProgress >= PROGRESS_MILLIS) {
+                    lastProgress = System.currentTimeMillis();
+                    this.log.accept(this.progress(completed.get(), terms.size(), start));
+                }
+            }
+
+            executor.shutdown();
+            while (!executor.awaitTermination(PROGRESS_MILLIS, TimeUnit.MILLISECONDS)) {
+                this.log.accept(this.progress(completed.get(), terms.size(), start));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return "ts-bulk: [" + terms.size() + "] terms, [" + failed.get() + "] failed in ["
+                + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms], throughput ["
+                + String.format("%.1f", terms.size() * 1e9 / Math.max(1, elapsed)) + " terms/s]\n"
+                + "latency p50 [" + LatencyWindow.percentileMillis(sorted, 50) + " ms] p95 [" + LatencyWindow.percentileMillis(sorted, 95)
+                + " ms] p99 [" + LatencyWindow.percentileMillis(sorted, 99) + " ms] max [" + LatencyWindow.percentileMillis(sorted, 100) + " ms]\n"
+                + "results written to [" + output + "]";
+    }
+
+    private String progress(int completed, int total, long start) {
+        long elapsed = System.nanoTime() - start;
+        return "ts-bulk: [" + completed + "/" + total + "] "
+                + String.format("%.1f", completed * 1e9 / Math.max(1, elapsed)) + " terms/s";
+    }
+
+    private static String format(boolean json, String term, String status, String total, int returned,
+                                 long latencyNanos, String error) {
+        long latencyMillis = TimeUnit.NANOSECONDS.toMillis(latencyNanos);
+        if (json) {
+            return "{\"term\":" + Json.string(term) + ",\"status\":\"" + status + "\",\"total\":"
+                    + (total.isEmpty() ? "null" : total) + ",\"returned\":" + returned
+                    + ",\"latencyMs\":" + latencyMillis + ",\"error\":" + Json.string(error) + "}";
+        }
+
+        return csv(term) + "," + status + "," + total + "," + returned + "," + latencyMillis + "," + csv(error);
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,82 @@
+package com.genesys.samples.console;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.genesys.workspace.models.AgentState;
+import com.genesys.workspace.models.Call;
+import com.genesys.workspace.models.CallState;
+import com.genesys.workspace.models.Dn;
+
+public class CallIndex {
+    private Map<String, TrackedCall> calls = new ConcurrentHashMap<>();
+    private volatile AgentState agentState;
+
+    public TrackedCall update(Call call) {
+        if (call.getState() == CallState.RELEASED) {
+            this.calls.remove(call.getId());
+            return null;
+        }
+
+        return this.calls.compute(call.getId(), (id, tracked) -> {
+            if (tracked == null) {
+                return new TrackedCall(call);
+            }
+
+            tracked.update(call);
+            return tracked;
+        });
+    }
+
+    public void put(TrackedCall call) {
+        this.calls.put(call.getConnId(), call);
+    }
+
+    public void rename(String previousConnId, Call call) {
+        this.calls.remove(previousConnId);
+        this.update(call);
+    }
+
+    public TrackedCall remove(String connId) {
+        return this.calls.remove(connId);
+    }
+
+    // Only removes the entry if it is still this one, not a call re-added under the same id since.
+    public boolean remove(TrackedCall call) {
+        return this.calls.remove(call.getConnId(), call);
+    }
+
+    public TrackedCall get(String connId) {
+        return this.calls.get(connId);
+    }
+
+    public Collection<TrackedCall> getCalls() {
+        return this.calls.values();
+    }
+
+    public int size() {
+        return this.calls.size();
+    }
+
+    public void updateDn(Dn dn) {
+        this.agentState = dn.getAgentState();
+    }
+
+    public AgentState getAgentState() {
+        return this.agentState;
+    }
+
+    public void estimate(MemoryEstimator estimator) {
+        for (TrackedCall call : this.calls.values()) {
+            // Map node: hash, key, value and next.
+            estimator.addObject(3, 4);
+            call.estimate(estimator);
+        }
+    }
+
+    public void clear() {
+        this.calls.clear();
+        this.agentState = null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.genesys.samples.console;
+
+import java.util.Collection;
+
+import com.genesys.workspace.common.WorkspaceApiException;
+import com.genesys.workspace.models.Call;
+import com.genesys.workspace.models.Dn;
+
+// Where the reconciler reads the calls and dn state to compare against.
+public interface CallStateSource {
+    Collection<Call> fetchCalls() throws WorkspaceApiException;
+
+    Dn fetchDn() throws WorkspaceApiException;
+}
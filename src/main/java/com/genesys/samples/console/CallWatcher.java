@@ -0,0 +1,49 @@
+package com.genesys.samples.console;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+import com.genesys.workspace.models.Call;
+
+public class CallWatcher {
+    private class Watch {
+        private Predicate<Call> condition;
+        private CompletableFuture<Call> future = new CompletableFuture<>();
+
+        public Watch(Predicate<Call> condition) {
+            this.condition = condition;
+        }
+    }
+
+    private List<Watch> watches = new CopyOnWriteArrayList<>();
+
+    public CompletableFuture<Call> await(Predicate<Call> condition) {
+        Watch watch = new Watch(condition);
+        this.watches.add(watch);
+        return watch.future;
+    }
+
+    public void cancel(CompletableFuture<Call> future) {
+        this.watches.removeIf(w -> w.future == future);
+        future.cancel(false);
+    }
+
+    public void onCall(Call call) {
+        for (Watch watch : this.watches) {
+            if (watch.condition.test(call)) {
+                this.watches.remove(watch);
+                watch.future.complete(call);
+            }
+        }
+    }
+
+    public void check(Collection<Call> calls) {
+        // Covers calls that changed state before the watch was registered.
+        for (Call call : calls) {
+            this.onCall(call);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.genesys.samples.console;
+
+public class CircuitBreaker {
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    public synchronized boolean allowRequest() {
+        switch (this.state) {
+            case OPEN:
+                if (System.currentTimeMillis() - this.openedAt < this.openMillis) {
+                    return false;
+                }
+                this.state = State.HALF_OPEN;
+                this.trialInFlight = false;
+                // Fall through and let a single trial request in.
+
+            case HALF_OPEN:
+                if (this.trialInFlight) {
+                    return false;
+                }
+                this.trialInFlight = true;
+                return true;
+
+            default:
+                return true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        this.state = State.CLOSED;
+        this.consecutiveFailures = 0;
+        this.trialInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        this.consecutiveFailures++;
+        if (this.state == State.HALF_OPEN || this.consecutiveFailures >= this.failureThreshold) {
+            this.state = State.OPEN;
+            this.openedAt = System.currentTimeMillis();
+            this.trialInFlight = false;
+        }
+    }
+
+    // Ends a trial that never reached the service without counting it either way.
+    public synchronized void release() {
+        this.trialInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return this.state;
+    }
+}
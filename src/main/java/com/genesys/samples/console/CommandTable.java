@@ -0,0 +1,144 @@
+package com.genesys.samples.console;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Every command is registered once; names and aliases share one map so dispatch is a single lookup.
+public class CommandTable {
+    public interface Binder {
+        // Returns null when the arguments don't fit, so the usage can be printed.
+        Invocation bind(List<String> args);
+    }
+
+    public interface Handler {
+        void handle(Invocation invocation) throws Exception;
+    }
+
+    public static class Invocation {
+        private final String id;
+        private final List<String> args;
+
+        public Invocation(String id, List<String> args) {
+            this.id = id;
+            this.args = args;
+        }
+
+        public String getId() {
+            return this.id;
+        }
+
+        public List<String> getArgs() {
+            return this.args;
+        }
+
+        public String get(int index) {
+            return this.args.get(index);
+        }
+    }
+
+    public static class Entry {
+        private final String name;
+        private final String[] aliases;
+        private final String usage;
+        private final int arity;
+        private final Binder binder;
+        private final Handler handler;
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LatencyWindow latency = new LatencyWindow(256);
+
+        private Entry(String name, String[] aliases, String usage, int arity, Binder binder, Handler handler) {
+            this.name = name;
+            this.aliases = aliases;
+            this.usage = usage;
+            this.arity = arity;
+            this.binder = binder;
+            this.handler = handler;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public String getUsage() {
+            return this.usage.isEmpty() ? this.name : this.name + " " + this.usage;
+        }
+
+        public String getHelp() {
+            String names = this.aliases.length == 0 ? this.name : this.name + "|" + String.join("|", this.aliases);
+            return this.usage.isEmpty() ? names : names + " " + this.usage;
+        }
+
+        // Returns false without running the handler when the arguments don't match the usage.
+        public boolean invoke(List<String> args) throws Exception {
+            Invocation invocation = args.size() < this.arity ? null : this.binder.bind(args);
+            if (invocation == null) {
+                return false;
+            }
+
+            this.invocations.increment();
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                this.handler.handle(invocation);
+                failed = false;
+                return true;
+            } finally {
+                if (failed) {
+                    this.errors.increment();
+                }
+                this.latency.record(System.nanoTime() - start);
+            }
+        }
+
+        public String getSummary() {
+            return this.name + ": invocations [" + this.invocations.sum() + "] errors [" + this.errors.sum()
+                    + "] " + this.latency.getSummary();
+        }
+    }
+
+    private final Map<String, Entry> byName = new HashMap<>();
+    private final List<Entry> entries = new ArrayList<>();
+
+    public void add(String name, String usage, int arity, Binder binder, Handler handler, String... aliases) {
+        Entry entry = new Entry(name, aliases, usage, arity, binder, handler);
+        this.register(name, entry);
+        for (String alias : aliases) {
+            this.register(alias, entry);
+        }
+        this.entries.add(entry);
+    }
+
+    public void add(String name, String usage, Handler handler, String... aliases) {
+        this.add(name, usage, 0, args -> new Invocation(null, args), handler, aliases);
+    }
+
+    private void register(String name, Entry entry) {
+        if (this.byName.putIfAbsent(name, entry) != null) {
+            throw new IllegalArgumentException("Command [" + name + "] is already registered.");
+        }
+    }
+
+    public Entry get(String name) {
+        return this.byName.get(name);
+    }
+
+    public Collection<Entry> getEntries() {
+        return Collections.unmodifiableList(this.entries);
+    }
+
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder("Commands:");
+        for (Entry entry : this.entries) {
+            if (entry.invocations.sum() > 0) {
+                summary.append("\n    ").append(entry.getSummary());
+            }
+        }
+        return summary.toString();
+    }
+}
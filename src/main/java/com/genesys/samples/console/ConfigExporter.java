@@ -0,0 +1,123 @@
+package com.genesys.samples.console;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+public class ConfigExporter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private class Export<T> {
+        private String name;
+        private Collection<T> items;
+        private Function<T, String> serializer;
+
+        public Export(String name, Collection<T> items, Function<T, String> serializer) {
+            this.name = name;
+            this.items = items != null ? items : Collections.emptyList();
+            this.serializer = serializer;
+        }
+
+        public String write(Path dir) throws IOException {
+            long start = System.nanoTime();
+            Path file = dir.resolve(this.name + ".jsonl");
+            CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            long bytes = 0;
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (T item : this.items) {
+                    bytes += encode(channel, encoder, buffer, this.serializer.apply(item));
+                    bytes += encode(channel, encoder, buffer, "\n");
+                }
+                drain(channel, buffer);
+            }
+
+            return this.name + ": [" + this.items.size() + "] items, [" + bytes + "] bytes in ["
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms] -> " + file;
+        }
+    }
+
+    private List<Export<?>> exports = new ArrayList<>();
+
+    public <T> void add(String name, Collection<T> items, Function<T, String> serializer) {
+        this.exports.add(new Export<>(name, items, serializer));
+    }
+
+    public String export(Path dir) throws IOException, InterruptedException {
+        Files.createDirectories(dir);
+        long start = System.nanoTime();
+
+        ExecutorService executor = Executors.newFixedThreadPool(this.exports.size(), r -> {
+            Thread thread = new Thread(r, "config-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (Export<?> export : this.exports) {
+                results.add(executor.submit(() -> export.write(dir)));
+            }
+
+            StringBuilder summary = new StringBuilder("Configuration export:\n");
+            for (Future<String> result : results) {
+                try {
+                    summary.append(result.get()).append("\n");
+                } catch (ExecutionException e) {
+                    summary.append("failed: ").append(e.getCause()).append("\n");
+                }
+            }
+            summary.append("Total [").append(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).append(" ms]");
+
+            return summary.toString();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long encode(FileChannel channel, CharsetEncoder encoder, ByteBuffer buffer, String text)
+            throws IOException {
+        CharBuffer chars = CharBuffer.wrap(text);
+        long bytes = 0;
+        for (;;) {
+            int position = buffer.position();
+            CoderResult result = encoder.encode(chars, buffer, true);
+            bytes += buffer.position() - position;
+            if (result.isOverflow()) {
+                drain(channel, buffer);
+            } else {
+                break;
+            }
+        }
+        encoder.reset();
+
+        return bytes;
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
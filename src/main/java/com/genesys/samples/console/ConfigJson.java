@@ -0,0 +1,106 @@
+package com.genesys.samples.console;
+
+import java.util.List;
+import java.util.Map;
+
+import com.genesys.workspace.models.cfg.ActionCode;
+import com.genesys.workspace.models.cfg.AgentGroup;
+import com.genesys.workspace.models.cfg.BusinessAttribute;
+import com.genesys.workspace.models.cfg.BusinessAttributeValue;
+import com.genesys.workspace.models.cfg.Transaction;
+
+// One JSON object per configuration item, with fields in a fixed order so exports diff cleanly.
+public class ConfigJson {
+    private ConfigJson() {
+    }
+
+    public static String actionCode(ActionCode code) {
+        StringBuilder sb = new StringBuilder("{\"name\":");
+        Json.appendString(sb, code.getName());
+        sb.append(",\"code\":");
+        Json.appendString(sb, code.getCode());
+        sb.append(",\"type\":");
+        Json.appendString(sb, code.getType() != null ? code.getType().name() : null);
+        sb.append(",\"subCodes\":");
+        appendMap(sb, code.getSubCodes());
+        sb.append(",\"userProperties\":");
+        Json.appendObject(sb, code.getUserProperties());
+        return sb.append('}').toString();
+    }
+
+    public static String agentGroup(AgentGroup group) {
+        StringBuilder sb = new StringBuilder("{\"name\":");
+        Json.appendString(sb, group.getName());
+        sb.append(",\"userProperties\":");
+        Json.appendObject(sb, group.getUserProperties());
+        return sb.append('}').toString();
+    }
+
+    public static String businessAttribute(BusinessAttribute attribute) {
+        StringBuilder sb = new StringBuilder("{\"dbid\":").append(attribute.getDbid()).append(",\"name\":");
+        Json.appendString(sb, attribute.getName());
+        sb.append(",\"displayName\":");
+        Json.appendString(sb, attribute.getDisplayName());
+        sb.append(",\"description\":");
+        Json.appendString(sb, attribute.getDescription());
+        sb.append(",\"values\":");
+
+        List<BusinessAttributeValue> values = attribute.getValues();
+        if (values == null) {
+            sb.append("null");
+        } else {
+            sb.append('[');
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                appendValue(sb, values.get(i));
+            }
+            sb.append(']');
+        }
+        return sb.append('}').toString();
+    }
+
+    public static String transaction(Transaction transaction) {
+        StringBuilder sb = new StringBuilder("{\"name\":");
+        Json.appendString(sb, transaction.getName());
+        sb.append(",\"alias\":");
+        Json.appendString(sb, transaction.getAlias());
+        sb.append(",\"userProperties\":");
+        Json.appendObject(sb, transaction.getUserProperties());
+        return sb.append('}').toString();
+    }
+
+    private static void appendValue(StringBuilder sb, BusinessAttributeValue value) {
+        sb.append("{\"dbid\":").append(value.getDbid()).append(",\"name\":");
+        Json.appendString(sb, value.getName());
+        sb.append(",\"displayName\":");
+        Json.appendString(sb, value.getDisplayName());
+        sb.append(",\"description\":");
+        Json.appendString(sb, value.getDescription());
+        sb.append(",\"defaultValue\":");
+        Json.appendString(sb, value.getDefaultValue() != null ? String.valueOf(value.getDefaultValue()) : null);
+        sb.append('}');
+    }
+
+    private static void appendMap(StringBuilder sb, Map<String, String> map) {
+        if (map == null) {
+            sb.append("null");
+            return;
+        }
+
+        sb.append('{');
+        boolean first = true;
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+
+            Json.appendString(sb, entry.getKey());
+            sb.append(':');
+            Json.appendString(sb, entry.getValue());
+        }
+        sb.append('}');
+    }
+}
@@ -0,0 +1,232 @@
+package com.genesys.samples.console;
+
+import java.io.PrintStream;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+public class Dashboard {
+    private static final int ROWS = 24;
+    private static final int COLUMNS = 100;
+    private static final int MAX_CALLS = 10;
+    private static final int MAX_ERRORS = 5;
+    // Unchanged cells shorter than a cursor move are rewritten instead of skipped.
+    private static final int MAX_GAP = 6;
+    private static final String CALL_FORMAT = "%-20s %-12s %-20s %-34s %8s";
+    private static final DateTimeFormatter CLOCK = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private final CallIndex callIndex;
+    private final Supplier<RequestPolicy> policy;
+    private final Supplier<String> dnSummary;
+    private final PrintStream out;
+    private final long frameMillis;
+
+    private final char[][] screen = new char[ROWS][COLUMNS];
+    private final char[][] frame = new char[ROWS][COLUMNS];
+    private final Deque<String> errors = new ArrayDeque<>();
+    private final LongAdder events = new LongAdder();
+    private long frames;
+    private long bytes;
+    private long lastFrameSecond;
+    private volatile boolean dirty;
+    private ScheduledExecutorService executor;
+
+    public Dashboard(CallIndex callIndex, Supplier<RequestPolicy> policy, Supplier<String> dnSummary, PrintStream out, int maxFps) {
+        this.callIndex = callIndex;
+        this.policy = policy;
+        this.dnSummary = dnSummary;
+        this.out = out;
+        this.frameMillis = Math.max(1, 1000 / Math.max(1, maxFps));
+    }
+
+    public synchronized boolean isActive() {
+        return this.executor != null;
+    }
+
+    public synchronized void start() {
+        if (this.executor != null) {
+            return;
+        }
+
+        // Switch to the alternate screen and hide the cursor; everything on it is redrawn from scratch.
+        for (char[] row : this.screen) {
+            Arrays.fill(row, ' ');
+        }
+        this.out.print("\u001b[?1049h\u001b[?25l\u001b[2J");
+        this.out.flush();
+        this.dirty = true;
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "dashboard");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.scheduleAtFixedRate(this::tick, 0, this.frameMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        ScheduledExecutorService executor;
+        synchronized (this) {
+            executor = this.executor;
+            this.executor = null;
+        }
+
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            this.out.print("\u001b[?25h\u001b[?1049l");
+            this.out.flush();
+        }
+    }
+
+    public void onEvent() {
+        this.events.increment();
+        this.dirty = true;
+    }
+
+    public void addError(String error) {
+        synchronized (this.errors) {
+            this.errors.addFirst(LocalTime.now().format(CLOCK) + " " + error);
+            while (this.errors.size() > MAX_ERRORS) {
+                this.errors.removeLast();
+            }
+        }
+        this.dirty = true;
+    }
+
+    private void tick() {
+        // Call timers only change once a second, so idle frames are skipped.
+        long second = System.currentTimeMillis() / 1000;
+        if (!this.dirty && second == this.lastFrameSecond) {
+            return;
+        }
+        this.dirty = false;
+        this.lastFrameSecond = second;
+
+        try {
+            this.compose();
+            this.flush();
+        } catch (RuntimeException e) {
+            this.addError("Dashboard render failed: " + e);
+        }
+    }
+
+    private void compose() {
+        for (char[] row : this.frame) {
+            Arrays.fill(row, ' ');
+        }
+
+        long now = System.currentTimeMillis();
+        int row = 0;
+        this.put(row, 0, "Workspace Dashboard");
+        this.put(row++, COLUMNS - 8, LocalTime.now().format(CLOCK));
+        this.put(row++, 0, "Dn: " + this.dnSummary.get());
+        row++;
+
+        List<TrackedCall> calls = this.callIndex.getCalls().stream()
+                .sorted(Comparator.comparingLong(TrackedCall::getStarted))
+                .collect(Collectors.toList());
+        this.put(row++, 0, "Calls [" + calls.size() + "]");
+        this.put(row++, 0, String.format(CALL_FORMAT, "Id", "State", "Parent", "Participants", "Time"));
+        for (int i = 0; i < MAX_CALLS; i++) {
+            if (i < calls.size()) {
+                TrackedCall call = calls.get(i);
+                String[] participants = call.getParticipants();
+                long seconds = (now - call.getStarted()) / 1000;
+                this.put(row, 0, String.format(CALL_FORMAT,
+                        call.getConnId(),
+                        call.getState(),
+                        call.getParentConnId() != null ? call.getParentConnId() : "",
+                        participants != null ? String.join(", ", participants) : "",
+                        String.format("%d:%02d", seconds / 60, seconds % 60)));
+            }
+            row++;
+        }
+        row++;
+
+        this.put(row++, 0, "Recent errors:");
+        synchronized (this.errors) {
+            int i = 0;
+            for (String error : this.errors) {
+                this.put(row + i++, 2, error);
+            }
+        }
+
+        RequestPolicy policy = this.policy.get();
+        this.put(ROWS - 2, 0, "requests [" + policy.getRequests()
+                + "] retries [" + policy.getRetries()
+                + "] failures [" + policy.getFailures()
+                + "] circuit [" + policy.getCircuitState()
+                + "] events [" + this.events.sum()
+                + "] frames [" + this.frames
+                + "] bytes [" + this.bytes + "]");
+        this.put(ROWS - 1, 0, "Press Enter to return to the prompt.");
+    }
+
+    private void put(int row, int column, String text) {
+        if (row >= ROWS) {
+            return;
+        }
+
+        char[] line = this.frame[row];
+        for (int i = 0; i < text.length() && column + i < COLUMNS; i++) {
+            char c = text.charAt(i);
+            line[column + i] = Character.isISOControl(c) ? ' ' : c;
+        }
+    }
+
+    private void flush() {
+        StringBuilder sb = new StringBuilder();
+
+        for (int row = 0; row < ROWS; row++) {
+            char[] current = this.screen[row];
+            char[] next = this.frame[row];
+            int column = 0;
+            while (column < COLUMNS) {
+                if (current[column] == next[column]) {
+                    column++;
+                    continue;
+                }
+
+                // Extend the run across short unchanged gaps.
+                int end = column + 1;
+                int gap = 0;
+                for (int i = end; i < COLUMNS && gap <= MAX_GAP; i++) {
+                    if (current[i] != next[i]) {
+                        end = i + 1;
+                        gap = 0;
+                    } else {
+                        gap++;
+                    }
+                }
+
+                sb.append("\u001b[").append(row + 1).append(';').append(column + 1).append('H');
+                sb.append(next, column, end - column);
+                System.arraycopy(next, column, current, column, end - column);
+                column = end;
+            }
+        }
+
+        if (sb.length() > 0) {
+            this.frames++;
+            this.bytes += sb.length();
+            this.out.print(sb);
+            this.out.flush();
+        }
+    }
+}
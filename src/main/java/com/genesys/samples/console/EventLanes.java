@@ -0,0 +1,155 @@
+package com.genesys.samples.console;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+// Moves event handling off the SDK callback thread. Call events are sharded by connId over single-threaded
+// lanes, so each call's events stay in order while different calls are handled in parallel.
+public class EventLanes {
+    private class Lane {
+        private final String name;
+        private final ThreadPoolExecutor executor;
+        private final AtomicInteger queued = new AtomicInteger();
+        private final LongAdder handled = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LatencyWindow handling = new LatencyWindow(1024);
+        private final AtomicInteger maxQueued = new AtomicInteger();
+
+        private Lane(String name) {
+            this.name = name;
+            this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "event-lane-" + name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        private void submit(Runnable task) {
+            EventLanes.this.dispatched.increment();
+            EventLanes.this.pending.incrementAndGet();
+            this.maxQueued.accumulateAndGet(this.queued.incrementAndGet(), Math::max);
+
+            this.executor.execute(() -> {
+                this.queued.decrementAndGet();
+                long start = System.nanoTime();
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    // Keep the lane alive for the events behind this one.
+                    this.failed.increment();
+                    EventLanes.this.log.accept("Event handling failed on lane [" + this.name + "]: " + e);
+                } finally {
+                    this.handling.record(System.nanoTime() - start);
+                    this.handled.increment();
+                    EventLanes.this.pending.decrementAndGet();
+                }
+            });
+        }
+
+        private String getSummary() {
+            return this.name + ": queued [" + this.queued.get() + "] max queued [" + this.maxQueued.get()
+                    + "] handled [" + this.handled.sum() + "] failed [" + this.failed.sum() + "] handling "
+                    + this.handling.getSummary();
+        }
+    }
+
+    private final Lane[] callLanes;
+    private final Lane dnLane;
+    private final Lane errorLane;
+    private final List<Lane> lanes = new ArrayList<>();
+    private final Map<String, Integer> renamed = new ConcurrentHashMap<>();
+    private final Consumer<String> log;
+    private final LongAdder dispatched = new LongAdder();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    public EventLanes(int callLanes, Consumer<String> log) {
+        this.log = log;
+        this.callLanes = new Lane[Math.max(1, callLanes)];
+        for (int i = 0; i < this.callLanes.length; i++) {
+            this.callLanes[i] = new Lane("call-" + i);
+            this.lanes.add(this.callLanes[i]);
+        }
+        this.dnLane = new Lane("dn");
+        this.errorLane = new Lane("error");
+        this.lanes.add(this.dnLane);
+        this.lanes.add(this.errorLane);
+    }
+
+    // A renamed call stays on its previous id's lane, and so do its later events under the new id, so the rename
+    // is handled after the earlier events and before the later ones. Only renamed ids are remembered, until the
+    // call is released.
+    public void dispatchCall(String connId, String previousConnId, boolean released, Runnable task) {
+        int lane;
+        if (previousConnId != null) {
+            Integer previous = this.renamed.remove(previousConnId);
+            lane = previous != null ? previous : this.laneFor(previousConnId);
+            if (!released) {
+                this.renamed.put(connId, lane);
+            }
+        } else {
+            Integer sticky = released ? this.renamed.remove(connId) : this.renamed.get(connId);
+            lane = sticky != null ? sticky : this.laneFor(connId);
+        }
+        this.callLanes[lane].submit(task);
+    }
+
+    public void clearRenamed() {
+        this.renamed.clear();
+    }
+
+    private int laneFor(String connId) {
+        return connId != null ? Math.floorMod(connId.hashCode(), this.callLanes.length) : 0;
+    }
+
+    public void dispatchDn(Runnable task) {
+        this.dnLane.submit(task);
+    }
+
+    public void dispatchError(Runnable task) {
+        this.errorLane.submit(task);
+    }
+
+    public int getQueued() {
+        return this.lanes.stream().mapToInt(lane -> lane.queued.get()).sum();
+    }
+
+    public long getDispatched() {
+        return this.dispatched.sum();
+    }
+
+    // Events queued or being handled.
+    public int getPending() {
+        return this.pending.get();
+    }
+
+    // Lets queued events finish, so the last call state changes are still shown on exit.
+    public void stop(long timeoutMillis) {
+        this.lanes.forEach(lane -> lane.executor.shutdown());
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        try {
+            for (Lane lane : this.lanes) {
+                lane.executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public String getSummary() {
+        StringBuilder sb = new StringBuilder("Event lanes: queued [" + this.getQueued() + "] renamed calls ["
+                + this.renamed.size() + "]\n");
+        for (Lane lane : this.lanes) {
+            sb.append("  ").append(lane.getSummary()).append("\n");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,133 @@
+package com.genesys.samples.console;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+public class EventMonitor {
+    private static final int WINDOW_SIZE = 1024;
+
+    private final long thresholdNanos;
+    private final Consumer<String> log;
+    private final LatencyWindow handleLag = new LatencyWindow(WINDOW_SIZE);
+    private final LatencyWindow renderLag = new LatencyWindow(WINDOW_SIZE);
+    private final LongAdder events = new LongAdder();
+    private final LongAdder warnings = new LongAdder();
+    private final AtomicInteger backlog = new AtomicInteger();
+    // Threads that handle events, and when each started handling its current event (0 when idle).
+    private final Map<Thread, Long> threads = new ConcurrentHashMap<>();
+    private final Map<Thread, Boolean> flagged = new ConcurrentHashMap<>();
+    private volatile long lastLagWarning;
+    private ScheduledExecutorService watchdog;
+
+    public EventMonitor(long thresholdMillis, Consumer<String> log) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.log = log;
+    }
+
+    public long arrived() {
+        long now = System.nanoTime();
+        this.events.increment();
+        this.backlog.incrementAndGet();
+        return now;
+    }
+
+    // Called on the thread that handles the event, which may not be the one it arrived on.
+    public void handling() {
+        this.threads.put(Thread.currentThread(), System.nanoTime());
+    }
+
+    public void rendered(long arrived) {
+        this.renderLag.record(System.nanoTime() - arrived);
+    }
+
+    public void handled(long arrived) {
+        long lag = System.nanoTime() - arrived;
+        this.handleLag.record(lag);
+        this.backlog.decrementAndGet();
+        this.threads.put(Thread.currentThread(), 0L);
+
+        if (lag > this.thresholdNanos && System.nanoTime() - this.lastLagWarning > TimeUnit.SECONDS.toNanos(10)) {
+            this.lastLagWarning = System.nanoTime();
+            this.warn("Event lag [" + TimeUnit.NANOSECONDS.toMillis(lag) + " ms] on thread ["
+                    + Thread.currentThread().getName() + "] is over the threshold.");
+        }
+    }
+
+    public synchronized void start() {
+        if (this.watchdog != null) {
+            return;
+        }
+
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "event-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.watchdog.scheduleWithFixedDelay(this::check, 1, 1, TimeUnit.SECONDS);
+    }
+
+    public synchronized void stop() {
+        if (this.watchdog != null) {
+            this.watchdog.shutdownNow();
+            this.watchdog = null;
+        }
+    }
+
+    private void check() {
+        long now = System.nanoTime();
+        for (Map.Entry<Thread, Long> entry : this.threads.entrySet()) {
+            Thread thread = entry.getKey();
+            if (!thread.isAlive()) {
+                this.threads.remove(thread);
+                this.flagged.remove(thread);
+                continue;
+            }
+
+            long busySince = entry.getValue();
+            boolean blocked = busySince != 0 && now - busySince > this.thresholdNanos;
+            // Only warn once per blocking episode.
+            if (blocked && this.flagged.put(thread, Boolean.TRUE) == null) {
+                StackTraceElement[] stack = thread.getStackTrace();
+                this.warn("Event thread [" + thread.getName() + "] busy for ["
+                        + TimeUnit.NANOSECONDS.toMillis(now - busySince) + " ms] state [" + thread.getState() + "]"
+                        + (stack.length > 0 ? " at " + stack[0] : ""));
+            } else if (!blocked) {
+                this.flagged.remove(thread);
+            }
+        }
+    }
+
+    private void warn(String msg) {
+        this.warnings.increment();
+        this.log.accept("Health: " + msg);
+    }
+
+    public String getSummary() {
+        long now = System.nanoTime();
+        StringBuilder sb = new StringBuilder("Event health:\n");
+        sb.append("events: ").append(this.events.sum())
+                .append(" backlog: ").append(this.backlog.get())
+                .append(" warnings: ").append(this.warnings.sum()).append("\n");
+        sb.append("arrival to handled: ").append(this.handleLag.getSummary()).append("\n");
+        sb.append("arrival to rendered: ").append(this.renderLag.getSummary()).append("\n");
+        sb.append("event threads:\n");
+        if (this.threads.isEmpty()) {
+            sb.append("<none>\n");
+        }
+        for (Map.Entry<Thread, Long> entry : this.threads.entrySet()) {
+            Thread thread = entry.getKey();
+            long busySince = entry.getValue();
+            sb.append("  ").append(thread.getName()).append(" state [").append(thread.getState()).append("] ")
+                    .append(busySince == 0 ? "idle" : "busy [" + TimeUnit.NANOSECONDS.toMillis(now - busySince) + " ms]")
+                    .append("\n");
+        }
+
+        return sb.toString();
+    }
+}
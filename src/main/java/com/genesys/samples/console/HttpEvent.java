@@ -0,0 +1,23 @@
+package com.genesys.samples.console;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.genesys.samples.console.Http")
+@Label("Workspace Request")
+@Category({"Workspace Console"})
+public class HttpEvent extends Event {
+    @Label("Command")
+    String command;
+
+    @Label("Connection Id")
+    String connId;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,75 @@
+package com.genesys.samples.console;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Events deliver fresh copies of the same connIds, numbers, states and keys. Retained state goes through
+// here so each distinct value is kept once. Entries are weak, so values nothing else holds are dropped,
+// and the pool stops growing at MAX_SIZE, after which new values are returned as they are. The pool is
+// split into stripes by hash, each with its own lock, so event lanes don't queue behind one monitor.
+public class Interner {
+    private static final int MAX_SIZE = 65536;
+    private static final int STRIPES = 16;
+
+    @SuppressWarnings("unchecked")
+    private static final Map<String, WeakReference<String>>[] stripes = new Map[STRIPES];
+    private static final LongAdder lookups = new LongAdder();
+    private static final LongAdder hits = new LongAdder();
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new WeakHashMap<>();
+        }
+    }
+
+    public static String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        lookups.increment();
+        int hash = value.hashCode();
+        Map<String, WeakReference<String>> pool = stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+        synchronized (pool) {
+            WeakReference<String> ref = pool.get(value);
+            String existing = ref != null ? ref.get() : null;
+            if (existing != null) {
+                hits.increment();
+                return existing;
+            }
+
+            if (pool.size() < MAX_SIZE / STRIPES) {
+                pool.put(value, new WeakReference<>(value));
+            }
+            return value;
+        }
+    }
+
+    public static String[] intern(String[] values) {
+        if (values == null) {
+            return null;
+        }
+
+        String[] interned = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            interned[i] = intern(values[i]);
+        }
+        return interned;
+    }
+
+    public static String getSummary() {
+        int size = 0;
+        for (Map<String, WeakReference<String>> pool : stripes) {
+            synchronized (pool) {
+                size += pool.size();
+            }
+        }
+
+        long lookups = Interner.lookups.sum();
+        long hits = Interner.hits.sum();
+        return "interned strings [" + size + "/" + MAX_SIZE + "] lookups [" + lookups + "] hits [" + hits
+                + "] hit rate [" + (lookups > 0 ? hits * 100 / lookups : 0) + "%]";
+    }
+}
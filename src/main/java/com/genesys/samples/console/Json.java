@@ -0,0 +1,91 @@
+package com.genesys.samples.console;
+
+import com.genesys.workspace.models.KeyValueCollection;
+import com.genesys.workspace.models.KeyValuePair;
+
+public class Json {
+    private Json() {
+    }
+
+    public static String string(String value) {
+        if (value == null) {
+            return "null";
+        }
+
+        StringBuilder sb = new StringBuilder(value.length() + 2);
+        appendString(sb, value);
+        return sb.toString();
+    }
+
+    public static String object(KeyValueCollection collection) {
+        StringBuilder sb = new StringBuilder();
+        appendObject(sb, collection);
+        return sb.toString();
+    }
+
+    public static void appendString(StringBuilder sb, String value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    public static void appendObject(StringBuilder sb, KeyValueCollection collection) {
+        if (collection == null) {
+            sb.append("null");
+            return;
+        }
+
+        sb.append('{');
+        boolean first = true;
+        for (KeyValuePair pair : collection) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+
+            appendString(sb, pair.getKey());
+            sb.append(':');
+            switch (pair.getValueType()) {
+                case INT:
+                    sb.append(pair.getIntValue());
+                    break;
+                case LIST:
+                    appendObject(sb, pair.getListValue());
+                    break;
+                default:
+                    appendString(sb, pair.getStringValue());
+            }
+        }
+        sb.append('}');
+    }
+}
@@ -0,0 +1,49 @@
+package com.genesys.samples.console;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+// Keeps the most recent samples so percentiles reflect current behaviour rather than the whole session.
+public class LatencyWindow {
+    private final long[] samples;
+    private int next;
+    private int count;
+    private long max;
+
+    public LatencyWindow(int size) {
+        this.samples = new long[size];
+    }
+
+    public synchronized void record(long nanos) {
+        this.samples[this.next] = nanos;
+        this.next = (this.next + 1) % this.samples.length;
+        this.count = Math.min(this.count + 1, this.samples.length);
+        this.max = Math.max(this.max, nanos);
+    }
+
+    public synchronized long[] snapshot() {
+        long[] copy = Arrays.copyOf(this.samples, this.count);
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    public synchronized long getMax() {
+        return this.max;
+    }
+
+    public static long percentileMillis(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return TimeUnit.NANOSECONDS.toMillis(sorted[Math.max(0, index)]);
+    }
+
+    public String getSummary() {
+        long[] sorted = this.snapshot();
+        return "p50 [" + percentileMillis(sorted, 50) + " ms] p95 [" + percentileMillis(sorted, 95)
+                + " ms] p99 [" + percentileMillis(sorted, 99) + " ms] max [" + TimeUnit.NANOSECONDS.toMillis(this.getMax())
+                + " ms] samples [" + sorted.length + "]";
+    }
+}
@@ -0,0 +1,17 @@
+package com.genesys.samples.console;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.genesys.samples.console.Listener")
+@Label("Event Listener")
+@Category({"Workspace Console"})
+public class ListenerEvent extends Event {
+    @Label("Command")
+    String command;
+
+    @Label("Connection Id")
+    String connId;
+}
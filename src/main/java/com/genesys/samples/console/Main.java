@@ -1,5 +1,9 @@
 package com.genesys.samples.console;
 
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.LoggerContext;
+
 public class Main {
 
     public static void main(String[] args) {
@@ -15,6 +19,11 @@ public class Main {
         } catch (Exception e) {
             System.out.println("Error!:\n" + e.toString());
             e.printStackTrace();
+        } finally {
+            // Drain the asynchronous audit appender before the JVM exits.
+            if (LoggerFactory.getILoggerFactory() instanceof LoggerContext) {
+                ((LoggerContext) LoggerFactory.getILoggerFactory()).stop();
+            }
         }
     }
 }
@@ -0,0 +1,52 @@
+package com.genesys.samples.console;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+// Rough retained size of console state, assuming a 64-bit JVM with compressed references and compact strings.
+// Shared objects (interned strings in particular) are only counted the first time they are seen.
+public class MemoryEstimator {
+    private static final int HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+
+    private final Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    private long bytes;
+
+    public void addObject(int references, int primitiveBytes) {
+        this.bytes += align(HEADER + references * REFERENCE + primitiveBytes);
+    }
+
+    public void addString(String value) {
+        if (value == null || !this.seen.add(value)) {
+            return;
+        }
+
+        boolean latin1 = true;
+        for (int i = 0; i < value.length() && latin1; i++) {
+            latin1 = value.charAt(i) < 256;
+        }
+        // String fields: value reference, hash, coder and hashIsZero, then the backing byte array.
+        this.bytes += align(HEADER + REFERENCE + 4 + 2) + align(ARRAY_HEADER + value.length() * (latin1 ? 1 : 2));
+    }
+
+    public void addArray(String[] values) {
+        if (values == null || !this.seen.add(values)) {
+            return;
+        }
+
+        this.bytes += align(ARRAY_HEADER + values.length * REFERENCE);
+        for (String value : values) {
+            this.addString(value);
+        }
+    }
+
+    public long getBytes() {
+        return this.bytes;
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+}
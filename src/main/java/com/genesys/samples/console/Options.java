@@ -46,6 +46,60 @@ public class Options {
     @Option(name="--autoLogin")
     private boolean autoLogin;
 
+    @Option(name="--consultTimeout")
+    private int consultTimeout = 30;
+
+    @Option(name="--rateLimit")
+    private double rateLimit = 10;
+
+    @Option(name="--rateBurst")
+    private int rateBurst = 20;
+
+    @Option(name="--maxRetries")
+    private int maxRetries = 3;
+
+    @Option(name="--dashboardFps")
+    private int dashboardFps = 10;
+
+    @Option(name="--sessionPool")
+    private String sessionPool;
+
+    @Option(name="--poolSize")
+    private int poolSize = 2;
+
+    @Option(name="--poolIdleMinutes")
+    private int poolIdleMinutes = 10;
+
+    @Option(name="--tokenRefreshMinutes")
+    private int tokenRefreshMinutes = 30;
+
+    @Option(name="--snapshot")
+    private String snapshot;
+
+    @Option(name="--snapshotIntervalSeconds")
+    private int snapshotIntervalSeconds = 60;
+
+    @Option(name="--bulkConcurrency")
+    private int bulkConcurrency = 8;
+
+    @Option(name="--userEventWindowMillis")
+    private int userEventWindowMillis = 0;
+
+    @Option(name="--userEventBatchSize")
+    private int userEventBatchSize = 50;
+
+    @Option(name="--userDataMaxCalls")
+    private int userDataMaxCalls = 256;
+
+    @Option(name="--eventLanes")
+    private int eventLanes = 4;
+
+    @Option(name="--lagThresholdMillis")
+    private int lagThresholdMillis = 500;
+
+    @Option(name="--benchmarkStartup")
+    private boolean benchmarkStartup;
+
     @Argument
     private List<String> arguments = new ArrayList<String>();
 
@@ -110,4 +164,76 @@ public class Options {
     public boolean isAutoLogin() {
         return this.autoLogin;
     }
+
+    public boolean isBenchmarkStartup() {
+        return this.benchmarkStartup;
+    }
+
+    public int getConsultTimeout() {
+        return this.consultTimeout;
+    }
+
+    public double getRateLimit() {
+        return this.rateLimit;
+    }
+
+    public int getRateBurst() {
+        return this.rateBurst;
+    }
+
+    public int getMaxRetries() {
+        return this.maxRetries;
+    }
+
+    public int getDashboardFps() {
+        return this.dashboardFps;
+    }
+
+    public String getSessionPool() {
+        return this.sessionPool;
+    }
+
+    public int getPoolSize() {
+        return this.poolSize;
+    }
+
+    public int getPoolIdleMinutes() {
+        return this.poolIdleMinutes;
+    }
+
+    public int getTokenRefreshMinutes() {
+        return this.tokenRefreshMinutes;
+    }
+
+    public String getSnapshot() {
+        return this.snapshot;
+    }
+
+    public int getSnapshotIntervalSeconds() {
+        return this.snapshotIntervalSeconds;
+    }
+
+    public int getBulkConcurrency() {
+        return this.bulkConcurrency;
+    }
+
+    public int getLagThresholdMillis() {
+        return this.lagThresholdMillis;
+    }
+
+    public int getEventLanes() {
+        return this.eventLanes;
+    }
+
+    public int getUserDataMaxCalls() {
+        return this.userDataMaxCalls;
+    }
+
+    public int getUserEventWindowMillis() {
+        return this.userEventWindowMillis;
+    }
+
+    public int getUserEventBatchSize() {
+        return this.userEventBatchSize;
+    }
 }
@@ -0,0 +1,54 @@
+package com.genesys.samples.console;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+import jdk.jfr.Recording;
+
+public class Profiler {
+    private Recording recording;
+    private Path destination;
+
+    public synchronized void start(String fileName) throws WorkspaceConsoleException {
+        if (this.recording != null) {
+            throw new WorkspaceConsoleException("A recording is already in progress.");
+        }
+
+        Recording recording = new Recording();
+        recording.setName("workspace-console");
+        recording.setToDisk(true);
+        recording.enable(CommandEvent.class).withThreshold(Duration.ZERO);
+        recording.enable(ListenerEvent.class).withThreshold(Duration.ZERO);
+        recording.enable(RenderEvent.class).withThreshold(Duration.ZERO);
+        recording.enable(HttpEvent.class).withThreshold(Duration.ZERO);
+        recording.start();
+
+        this.recording = recording;
+        this.destination = fileName != null ? Paths.get(fileName) : null;
+    }
+
+    public synchronized Path stop(String fileName) throws WorkspaceConsoleException {
+        if (this.recording == null) {
+            throw new WorkspaceConsoleException("No recording in progress.");
+        }
+
+        Path path = fileName != null ? Paths.get(fileName) : this.destination;
+        if (path == null) {
+            throw new WorkspaceConsoleException("No destination file specified.");
+        }
+
+        try {
+            this.recording.stop();
+            this.recording.dump(path);
+            return path;
+        } catch (IOException e) {
+            throw new WorkspaceConsoleException("Failed to write recording to [" + path + "]", e);
+        } finally {
+            this.recording.close();
+            this.recording = null;
+            this.destination = null;
+        }
+    }
+}
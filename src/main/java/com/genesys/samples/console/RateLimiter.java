@@ -0,0 +1,47 @@
+package com.genesys.samples.console;
+
+import java.util.concurrent.TimeUnit;
+
+public class RateLimiter {
+    private final double permitsPerNano;
+    private final double capacity;
+    private double tokens;
+    private long lastRefill;
+
+    public RateLimiter(double permitsPerSecond, int burst) {
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = Math.max(1, burst);
+        this.tokens = this.capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    // Blocks until a permit is available and returns the time spent waiting in nanoseconds.
+    public long acquire() throws InterruptedException {
+        if (this.permitsPerNano <= 0) {
+            // A rate of zero or less means unlimited.
+            return 0;
+        }
+
+        long waited = 0;
+        for (;;) {
+            long wait;
+            synchronized (this) {
+                this.refill();
+                if (this.tokens >= 1) {
+                    this.tokens -= 1;
+                    return waited;
+                }
+                wait = (long) Math.ceil((1 - this.tokens) / this.permitsPerNano);
+            }
+
+            TimeUnit.NANOSECONDS.sleep(wait);
+            waited += wait;
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        this.tokens = Math.min(this.capacity, this.tokens + (now - this.lastRefill) * this.permitsPerNano);
+        this.lastRefill = now;
+    }
+}
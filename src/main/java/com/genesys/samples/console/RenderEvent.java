@@ -0,0 +1,20 @@
+package com.genesys.samples.console;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.genesys.samples.console.Render")
+@Label("Render")
+@Category({"Workspace Console"})
+public class RenderEvent extends Event {
+    @Label("Command")
+    String command;
+
+    @Label("Connection Id")
+    String connId;
+
+    @Label("Length")
+    int length;
+}
@@ -0,0 +1,158 @@
+package com.genesys.samples.console;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.genesys.internal.common.ApiException;
+import com.genesys.workspace.common.WorkspaceApiException;
+
+public class RequestPolicy {
+    private static final long BASE_DELAY_MILLIS = 100;
+    private static final long MAX_DELAY_MILLIS = 5000;
+    private static final int BREAKER_THRESHOLD = 5;
+    private static final long BREAKER_OPEN_MILLIS = 10000;
+
+    private final RateLimiter rateLimiter;
+    private final CircuitBreaker breaker;
+    private final int maxRetries;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder throttledNanos = new LongAdder();
+
+    public RequestPolicy(double permitsPerSecond, int burst, int maxRetries) {
+        this.rateLimiter = new RateLimiter(permitsPerSecond, burst);
+        this.breaker = new CircuitBreaker(BREAKER_THRESHOLD, BREAKER_OPEN_MILLIS);
+        this.maxRetries = maxRetries;
+    }
+
+    // Failures the service may already have acted on are only retried when the operation is safe to repeat,
+    // so a read timeout can't place a second call or replay DTMF digits.
+    public <T> T execute(String operation, boolean retrySafe, ApiRequest<T> request) throws WorkspaceApiException {
+        this.requests.increment();
+        long delay = BASE_DELAY_MILLIS;
+
+        for (int attempt = 0; ; attempt++) {
+            if (!this.breaker.allowRequest()) {
+                this.rejected.increment();
+                throw new WorkspaceApiException("Circuit open, [" + operation + "] not sent.");
+            }
+
+            boolean recorded = false;
+            try {
+                this.throttledNanos.add(this.rateLimiter.acquire());
+                this.attempts.increment();
+                T result = request.send();
+                this.breaker.onSuccess();
+                recorded = true;
+                return result;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WorkspaceApiException("Interrupted while sending [" + operation + "]", e);
+            } catch (WorkspaceApiException e) {
+                if (!isUnavailable(e)) {
+                    // The service answered, so it is not degraded.
+                    this.breaker.onSuccess();
+                    recorded = true;
+                    this.failures.increment();
+                    throw e;
+                }
+
+                this.breaker.onFailure();
+                recorded = true;
+                if (attempt >= this.maxRetries || !(retrySafe || isNotSent(e))) {
+                    this.failures.increment();
+                    throw e;
+                }
+            } catch (RuntimeException e) {
+                this.breaker.onFailure();
+                recorded = true;
+                this.failures.increment();
+                throw e;
+            } finally {
+                if (!recorded) {
+                    // Interrupted before the request went out, so a half-open trial is given back.
+                    this.breaker.release();
+                }
+            }
+
+            // Decorrelated jitter: sleep a random time between the base and three times the previous delay.
+            delay = Math.min(MAX_DELAY_MILLIS, ThreadLocalRandom.current().nextLong(BASE_DELAY_MILLIS, delay * 3 + 1));
+            this.retries.increment();
+            try {
+                TimeUnit.MILLISECONDS.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WorkspaceApiException("Interrupted while retrying [" + operation + "]", e);
+            }
+        }
+    }
+
+    // Network failures, timeouts, throttling and server errors, which count against the circuit breaker.
+    private static boolean isUnavailable(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+
+            if (cause instanceof ApiException) {
+                int code = ((ApiException) cause).getCode();
+                return code == 0 || code == 408 || code == 429 || code >= 500;
+            }
+        }
+
+        return false;
+    }
+
+    // Failures where the request can't have reached the service, which any operation may retry.
+    private static boolean isNotSent(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof NoRouteToHostException
+                    || cause instanceof UnknownHostException) {
+                return true;
+            }
+
+            if (cause instanceof ApiException && ((ApiException) cause).getCode() != 0) {
+                int code = ((ApiException) cause).getCode();
+                return code == 429 || code == 503;
+            }
+        }
+
+        return false;
+    }
+
+    public long getRequests() {
+        return this.requests.sum();
+    }
+
+    public long getRetries() {
+        return this.retries.sum();
+    }
+
+    public long getFailures() {
+        return this.failures.sum();
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return this.breaker.getState();
+    }
+
+    public String getSummary() {
+        return "Request policy:\n"
+                + "requests: " + this.requests.sum() + "\n"
+                + "attempts: " + this.attempts.sum() + "\n"
+                + "retries: " + this.retries.sum() + "\n"
+                + "failures: " + this.failures.sum() + "\n"
+                + "rejected: " + this.rejected.sum() + "\n"
+                + "throttled: " + TimeUnit.NANOSECONDS.toMillis(this.throttledNanos.sum()) + " ms\n"
+                + "circuit: " + this.breaker.getState() + "\n";
+    }
+}
@@ -0,0 +1,302 @@
+package com.genesys.samples.console;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.genesys.workspace.models.CallState;
+
+// A load mix read from a scenario file:
+//
+//   rate 0.5                  flows started per second, arrivals are random (Poisson)
+//   duration 600              seconds to keep starting flows, 0 or omitted runs until stopped
+//   flow inbound 70           a flow and its weight in the mix, followed by its steps
+//     wait ringing 60
+//     answer
+//     think 5-20
+//     release
+public class Scenario {
+    public static class Step {
+        private final int line;
+        private final String text;
+        private final String action;
+        private final List<String> args;
+        private CallState state;
+        private long timeoutMillis;
+        private double thinkMin;
+        private double thinkMax;
+        private boolean exponential;
+
+        private Step(int line, String text, String action, List<String> args) {
+            this.line = line;
+            this.text = text;
+            this.action = action;
+            this.args = args;
+        }
+
+        public int getLine() {
+            return this.line;
+        }
+
+        public String getText() {
+            return this.text;
+        }
+
+        public String getAction() {
+            return this.action;
+        }
+
+        public List<String> getArgs() {
+            return this.args;
+        }
+
+        public CallState getState() {
+            return this.state;
+        }
+
+        public long getTimeoutMillis() {
+            return this.timeoutMillis;
+        }
+
+        public long nextThinkMillis() {
+            double seconds;
+            if (this.exponential) {
+                seconds = -Math.log(1 - ThreadLocalRandom.current().nextDouble()) * this.thinkMin;
+            } else if (this.thinkMax > this.thinkMin) {
+                seconds = ThreadLocalRandom.current().nextDouble(this.thinkMin, this.thinkMax);
+            } else {
+                seconds = this.thinkMin;
+            }
+            return (long) (seconds * 1000);
+        }
+    }
+
+    public static class Flow {
+        private final String name;
+        private final int weight;
+        private final List<Step> steps = new ArrayList<>();
+
+        private Flow(String name, int weight) {
+            this.name = name;
+            this.weight = weight;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public int getWeight() {
+            return this.weight;
+        }
+
+        public List<Step> getSteps() {
+            return Collections.unmodifiableList(this.steps);
+        }
+    }
+
+    private static final long DEFAULT_WAIT_SECONDS = 30;
+
+    private double rate;
+    private long durationSeconds;
+    private final List<Flow> flows = new ArrayList<>();
+    private int totalWeight;
+
+    public static Scenario load(Path path) throws WorkspaceConsoleException {
+        Scenario scenario = new Scenario();
+        Tokenizer tokenizer = new Tokenizer();
+        Flow flow = null;
+        int number = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                String text = line.trim();
+                if (text.isEmpty() || text.startsWith("#")) {
+                    continue;
+                }
+
+                List<String> tokens = tokenizer.tokenize(text);
+                String keyword = tokens.get(0).toLowerCase(Locale.ROOT);
+                List<String> args = tokens.subList(1, tokens.size());
+                try {
+                    switch (keyword) {
+                        case "rate":
+                            scenario.rate = Double.parseDouble(single(args, keyword));
+                            break;
+
+                        case "duration":
+                            scenario.durationSeconds = Long.parseLong(single(args, keyword));
+                            break;
+
+                        case "flow":
+                            if (args.size() != 2) {
+                                throw new WorkspaceConsoleException("expected flow <name> <weight>");
+                            }
+                            flow = new Flow(args.get(0), Integer.parseInt(args.get(1)));
+                            if (flow.weight <= 0) {
+                                throw new WorkspaceConsoleException("flow weight must be positive");
+                            }
+                            scenario.flows.add(flow);
+                            scenario.totalWeight += flow.weight;
+                            break;
+
+                        default:
+                            if (flow == null) {
+                                throw new WorkspaceConsoleException("step [" + keyword + "] is outside a flow");
+                            }
+                            flow.steps.add(parseStep(number, text, keyword, args));
+                    }
+                } catch (NumberFormatException e) {
+                    throw new WorkspaceConsoleException("invalid number, " + e.getMessage());
+                }
+            }
+        } catch (WorkspaceConsoleException e) {
+            throw new WorkspaceConsoleException("Scenario [" + path + "] line " + number + ": " + e.getMessage());
+        } catch (IOException e) {
+            throw new WorkspaceConsoleException("Failed to read scenario [" + path + "]", e);
+        }
+
+        if (scenario.flows.isEmpty()) {
+            throw new WorkspaceConsoleException("Scenario [" + path + "] has no flows.");
+        }
+        if (scenario.rate <= 0) {
+            throw new WorkspaceConsoleException("Scenario [" + path + "] needs a positive rate.");
+        }
+        for (Flow f : scenario.flows) {
+            if (f.steps.isEmpty()) {
+                throw new WorkspaceConsoleException("Scenario [" + path + "] flow [" + f.name + "] has no steps.");
+            }
+        }
+
+        return scenario;
+    }
+
+    private static String single(List<String> args, String keyword) throws WorkspaceConsoleException {
+        if (args.size() != 1) {
+            throw new WorkspaceConsoleException("expected " + keyword + " <value>");
+        }
+        return args.get(0);
+    }
+
+    private static Step parseStep(int line, String text, String action, List<String> args)
+            throws WorkspaceConsoleException {
+        Step step = new Step(line, text, action, args);
+        switch (action) {
+            case "answer":
+            case "hold":
+            case "retrieve":
+            case "release":
+            case "release-consult":
+            case "clear-call":
+            case "complete-transfer":
+            case "complete-conference":
+            case "start-recording":
+            case "pause-recording":
+            case "resume-recording":
+            case "stop-recording":
+            case "ready":
+            case "not-ready":
+                expectArgs(step, 0);
+                break;
+
+            case "make-call":
+            case "dtmf":
+            case "redirect":
+            case "single-step-transfer":
+            case "initiate-transfer":
+            case "initiate-conference":
+                expectArgs(step, 1);
+                break;
+
+            case "attach-user-data":
+            case "update-user-data":
+                if (args.isEmpty()) {
+                    throw new WorkspaceConsoleException(action + " needs key=value pairs");
+                }
+                for (String pair : args) {
+                    if (Tokenizer.pairSeparator(pair) < 0) {
+                        throw new WorkspaceConsoleException("[" + pair + "] is not a key=value pair");
+                    }
+                }
+                break;
+
+            case "wait":
+            case "wait-consult":
+                if (args.isEmpty() || args.size() > 2) {
+                    throw new WorkspaceConsoleException("expected " + action + " <state> [timeoutSeconds]");
+                }
+                try {
+                    step.state = CallState.valueOf(args.get(0).toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new WorkspaceConsoleException("unknown call state [" + args.get(0) + "]");
+                }
+                step.timeoutMillis = TimeUnit.SECONDS.toMillis(
+                        args.size() > 1 ? Long.parseLong(args.get(1)) : DEFAULT_WAIT_SECONDS);
+                break;
+
+            case "think":
+                expectArgs(step, 1);
+                // <seconds>, <min>-<max> for uniform or ~<mean> for exponential think times.
+                String spec = args.get(0);
+                int dash = spec.indexOf('-', 1);
+                if (spec.startsWith("~")) {
+                    step.exponential = true;
+                    step.thinkMin = Double.parseDouble(spec.substring(1));
+                } else if (dash > 0) {
+                    step.thinkMin = Double.parseDouble(spec.substring(0, dash));
+                    step.thinkMax = Double.parseDouble(spec.substring(dash + 1));
+                } else {
+                    step.thinkMin = Double.parseDouble(spec);
+                }
+                break;
+
+            default:
+                throw new WorkspaceConsoleException("unknown step [" + action + "]");
+        }
+
+        return step;
+    }
+
+    private static void expectArgs(Step step, int count) throws WorkspaceConsoleException {
+        if (step.args.size() != count) {
+            throw new WorkspaceConsoleException(step.action + " expects " + count + " argument(s)");
+        }
+    }
+
+    public double getRate() {
+        return this.rate;
+    }
+
+    public long getDurationSeconds() {
+        return this.durationSeconds;
+    }
+
+    public List<Flow> getFlows() {
+        return Collections.unmodifiableList(this.flows);
+    }
+
+    public Flow pickFlow() {
+        int pick = ThreadLocalRandom.current().nextInt(this.totalWeight);
+        for (Flow flow : this.flows) {
+            pick -= flow.weight;
+            if (pick < 0) {
+                return flow;
+            }
+        }
+        return this.flows.get(this.flows.size() - 1);
+    }
+
+    // Time until the next flow starts, exponentially distributed so arrivals follow the configured rate.
+    public long nextArrivalMillis() {
+        return (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) / this.rate * 1000);
+    }
+}
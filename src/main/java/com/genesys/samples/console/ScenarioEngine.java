@@ -0,0 +1,427 @@
+package com.genesys.samples.console;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import com.genesys.workspace.WorkspaceApi;
+import com.genesys.workspace.common.WorkspaceApiException;
+import com.genesys.workspace.models.Call;
+import com.genesys.workspace.models.CallState;
+import com.genesys.workspace.models.KeyValueCollection;
+
+// Starts flows from a scenario at its arrival rate, each on a session that isn't already running one.
+public class ScenarioEngine {
+    public interface Sender {
+        void send(WorkspaceApi api, String operation, String connId, ApiRequest<?> request) throws WorkspaceApiException;
+    }
+
+    private static class Stats {
+        private final LongAdder succeeded = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LatencyWindow latency = new LatencyWindow(1024);
+
+        private void record(boolean ok, long nanos) {
+            (ok ? this.succeeded : this.failed).increment();
+            this.latency.record(nanos);
+        }
+
+        private String getSummary() {
+            return "ok [" + this.succeeded.sum() + "] failed [" + this.failed.sum() + "] " + this.latency.getSummary();
+        }
+    }
+
+    private class Run {
+        private final Session session;
+        private String connId;
+        private String consultId;
+
+        private Run(Session session) {
+            this.session = session;
+        }
+    }
+
+    private static final long STOP_TIMEOUT_MILLIS = 10000;
+
+    private final Scenario scenario;
+    private final List<Session> sessions;
+    private final Sender sender;
+    private final Consumer<String> log;
+    private final Runnable finished;
+    private final ConcurrentLinkedQueue<Session> idle;
+    private final Map<WorkspaceApi, CallWatcher> watchers = new ConcurrentHashMap<>();
+    private final Map<Scenario.Flow, Stats> flowStats = new LinkedHashMap<>();
+    private final Map<Scenario.Step, Stats> stepStats = new ConcurrentHashMap<>();
+    private final LongAdder arrivals = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final AtomicInteger running = new AtomicInteger();
+    private final ExecutorService workers;
+    private Thread arrivalThread;
+    private volatile boolean stopped;
+    private long started;
+    private volatile long ended;
+
+    public ScenarioEngine(Scenario scenario, List<Session> sessions, Sender sender, Consumer<String> log,
+            Runnable finished) {
+        this.scenario = scenario;
+        this.sessions = sessions;
+        this.sender = sender;
+        this.log = log;
+        this.finished = finished;
+        this.idle = new ConcurrentLinkedQueue<>(sessions);
+        for (Session session : sessions) {
+            this.watchers.put(session.getApi(), new CallWatcher());
+        }
+        for (Scenario.Flow flow : scenario.getFlows()) {
+            this.flowStats.put(flow, new Stats());
+            flow.getSteps().forEach(step -> this.stepStats.put(step, new Stats()));
+        }
+
+        AtomicInteger count = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(sessions.size(), r -> {
+            Thread thread = new Thread(r, "scenario-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public synchronized void start() {
+        this.started = System.currentTimeMillis();
+        this.arrivalThread = new Thread(this::arrive, "scenario-arrivals");
+        this.arrivalThread.setDaemon(true);
+        this.arrivalThread.start();
+    }
+
+    public void stop() {
+        this.ended = System.currentTimeMillis();
+        this.stopped = true;
+        synchronized (this) {
+            if (this.arrivalThread != null) {
+                this.arrivalThread.interrupt();
+            }
+        }
+        this.workers.shutdownNow();
+        // Interrupted flows release their calls, so give them a moment before the sessions are reused or destroyed.
+        try {
+            this.workers.awaitTermination(STOP_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean isStopped() {
+        return this.stopped;
+    }
+
+    public void onCall(WorkspaceApi api, Call call) {
+        CallWatcher watcher = this.watchers.get(api);
+        if (watcher != null) {
+            watcher.onCall(call);
+        }
+    }
+
+    private void arrive() {
+        long end = this.scenario.getDurationSeconds() > 0
+                ? this.started + TimeUnit.SECONDS.toMillis(this.scenario.getDurationSeconds()) : Long.MAX_VALUE;
+        try {
+            while (!this.stopped) {
+                Thread.sleep(this.scenario.nextArrivalMillis());
+                if (System.currentTimeMillis() >= end) {
+                    break;
+                }
+
+                this.arrivals.increment();
+                Session session = this.idle.poll();
+                if (session == null) {
+                    // Every session is busy, so the mix can't keep up with the rate.
+                    this.skipped.increment();
+                    continue;
+                }
+
+                Scenario.Flow flow = this.scenario.pickFlow();
+                this.running.incrementAndGet();
+                this.workers.execute(() -> {
+                    try {
+                        this.runFlow(flow, session);
+                    } finally {
+                        this.running.decrementAndGet();
+                        this.idle.offer(session);
+                    }
+                });
+            }
+        } catch (InterruptedException e) {
+            return;
+        }
+
+        this.workers.shutdown();
+        try {
+            this.workers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            return;
+        }
+        this.ended = System.currentTimeMillis();
+        this.stopped = true;
+        this.log.accept("Scenario finished.\n" + this.getSummary());
+        this.finished.run();
+    }
+
+    private void runFlow(Scenario.Flow flow, Session session) {
+        Run run = new Run(session);
+        long flowStart = System.nanoTime();
+        boolean ok = false;
+        try {
+            for (Scenario.Step step : flow.getSteps()) {
+                long stepStart = System.nanoTime();
+                boolean stepOk = false;
+                try {
+                    this.runStep(step, run);
+                    stepOk = true;
+                } finally {
+                    this.stepStats.get(step).record(stepOk, System.nanoTime() - stepStart);
+                }
+            }
+            ok = true;
+        } catch (Exception e) {
+            // Stopping interrupts flows mid-step, sometimes inside a request. Clear the flag for the cleanup
+            // requests and set it again afterwards.
+            boolean interrupted = Thread.interrupted() || e instanceof InterruptedException;
+            if (!interrupted) {
+                this.log.accept("Scenario flow [" + flow.getName() + "] on [" + session.getName() + "] failed: " + e);
+            }
+            // Don't leave calls behind that would trip up the session's next flow.
+            this.releaseQuietly(run, run.consultId);
+            this.releaseQuietly(run, run.connId);
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        } finally {
+            this.flowStats.get(flow).record(ok, System.nanoTime() - flowStart);
+        }
+    }
+
+    private void runStep(Scenario.Step step, Run run) throws Exception {
+        WorkspaceApi api = run.session.getApi();
+        List<String> args = step.getArgs();
+        switch (step.getAction()) {
+            case "think":
+                Thread.sleep(step.nextThinkMillis());
+                break;
+
+            case "wait":
+                Call call = this.await(run, step, c -> run.connId == null || run.connId.equals(c.getId()));
+                run.connId = call.getId();
+                break;
+
+            case "wait-consult":
+                Call consult = this.await(run, step, c -> run.connId != null && run.connId.equals(c.getParentConnId()));
+                run.consultId = consult.getId();
+                break;
+
+            case "ready":
+                this.sender.send(api, "setAgentReady", null, () -> {
+                    api.voice().setAgentReady();
+                    return null;
+                });
+                break;
+
+            case "not-ready":
+                this.sender.send(api, "setAgentNotReady", null, () -> {
+                    api.voice().setAgentNotReady();
+                    return null;
+                });
+                break;
+
+            case "make-call":
+                run.connId = null;
+                this.sender.send(api, "makeCall", null, () -> {
+                    api.voice().makeCall(args.get(0));
+                    return null;
+                });
+                break;
+
+            case "answer":
+                this.sendCall(run, "answerCall", id -> api.voice().answerCall(id));
+                break;
+
+            case "hold":
+                this.sendCall(run, "holdCall", id -> api.voice().holdCall(id));
+                break;
+
+            case "retrieve":
+                this.sendCall(run, "retrieveCall", id -> api.voice().retrieveCall(id));
+                break;
+
+            case "release":
+                this.sendCall(run, "releaseCall", id -> api.voice().releaseCall(id));
+                break;
+
+            case "release-consult":
+                String consultId = this.require(run.consultId, "consult call");
+                this.sender.send(api, "releaseCall", consultId, () -> {
+                    api.voice().releaseCall(consultId);
+                    return null;
+                });
+                break;
+
+            case "clear-call":
+                this.sendCall(run, "clearCall", id -> api.voice().clearCall(id));
+                break;
+
+            case "start-recording":
+                this.sendCall(run, "startRecording", id -> api.voice().startRecording(id));
+                break;
+
+            case "pause-recording":
+                this.sendCall(run, "pauseRecording", id -> api.voice().pauseRecording(id));
+                break;
+
+            case "resume-recording":
+                this.sendCall(run, "resumeRecording", id -> api.voice().resumeRecording(id));
+                break;
+
+            case "stop-recording":
+                this.sendCall(run, "stopRecording", id -> api.voice().stopRecording(id));
+                break;
+
+            case "dtmf":
+                this.sendCall(run, "sendDTMF", id -> api.voice().sendDTMF(id, args.get(0)));
+                break;
+
+            case "redirect":
+                this.sendCall(run, "redirectCall", id -> api.voice().redirectCall(id, args.get(0)));
+                break;
+
+            case "single-step-transfer":
+                this.sendCall(run, "singleStepTransfer", id -> api.voice().singleStepTransfer(id, args.get(0)));
+                break;
+
+            case "initiate-transfer":
+                run.consultId = null;
+                this.sendCall(run, "initiateTransfer", id -> api.voice().initiateTransfer(id, args.get(0)));
+                break;
+
+            case "initiate-conference":
+                run.consultId = null;
+                this.sendCall(run, "initiateConference", id -> api.voice().initiateConference(id, args.get(0)));
+                break;
+
+            case "complete-transfer":
+                String transferId = this.require(run.consultId, "consult call");
+                this.sendCall(run, "completeTransfer", id -> api.voice().completeTransfer(transferId, id));
+                break;
+
+            case "complete-conference":
+                String conferenceId = this.require(run.consultId, "consult call");
+                this.sendCall(run, "completeConference", id -> api.voice().completeConference(conferenceId, id));
+                break;
+
+            case "attach-user-data":
+                this.sendCall(run, "attachUserData", id -> api.voice().attachUserData(id, this.toUserData(args)));
+                break;
+
+            case "update-user-data":
+                this.sendCall(run, "updateUserData", id -> api.voice().updateUserData(id, this.toUserData(args)));
+                break;
+
+            default:
+                throw new WorkspaceConsoleException("Unsupported step [" + step.getAction() + "]");
+        }
+    }
+
+    private interface CallOperation {
+        void send(String connId) throws WorkspaceApiException;
+    }
+
+    private void sendCall(Run run, String operation, CallOperation request) throws Exception {
+        String connId = this.require(run.connId, "call");
+        this.sender.send(run.session.getApi(), operation, connId, () -> {
+            request.send(connId);
+            return null;
+        });
+    }
+
+    private String require(String connId, String what) throws WorkspaceConsoleException {
+        if (connId == null) {
+            throw new WorkspaceConsoleException("No " + what + ", add a wait step first.");
+        }
+        return connId;
+    }
+
+    private Call await(Run run, Scenario.Step step, Predicate<Call> match)
+            throws InterruptedException, ExecutionException, WorkspaceConsoleException {
+        WorkspaceApi api = run.session.getApi();
+        CallWatcher watcher = this.watchers.get(api);
+        CompletableFuture<Call> future = watcher.await(c -> c.getState() == step.getState() && match.test(c));
+        // The call may have reached the state before the watch was registered.
+        watcher.check(api.voice().getCalls());
+        try {
+            return future.get(step.getTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new WorkspaceConsoleException("Timed out at line " + step.getLine() + " [" + step.getText() + "]");
+        } finally {
+            watcher.cancel(future);
+        }
+    }
+
+    private KeyValueCollection toUserData(List<String> pairs) {
+        KeyValueCollection userData = new KeyValueCollection();
+        for (String pair : pairs) {
+            int separator = Tokenizer.pairSeparator(pair);
+            userData.addString(pair.substring(0, separator), pair.substring(separator + 1));
+        }
+        return userData;
+    }
+
+    private void releaseQuietly(Run run, String connId) {
+        if (connId == null) {
+            return;
+        }
+
+        boolean active = run.session.getApi().voice().getCalls().stream()
+                .anyMatch(c -> c.getId().equals(connId) && c.getState() != CallState.RELEASED);
+        if (active) {
+            try {
+                this.sender.send(run.session.getApi(), "releaseCall", connId, () -> {
+                    run.session.getApi().voice().releaseCall(connId);
+                    return null;
+                });
+            } catch (Exception e) {
+                this.log.accept("Scenario: failed to release call [" + connId + "]: " + e);
+            }
+        }
+    }
+
+    public String getSummary() {
+        long elapsed = Math.max(1, (this.ended > 0 ? this.ended : System.currentTimeMillis()) - this.started);
+        StringBuilder sb = new StringBuilder("Scenario: ").append(this.stopped ? "stopped" : "running")
+                .append(" elapsed [").append(elapsed / 1000).append(" s] sessions [").append(this.sessions.size())
+                .append("] running [").append(this.running.get()).append("] arrivals [").append(this.arrivals.sum())
+                .append("] skipped [").append(this.skipped.sum()).append("] target rate [")
+                .append(this.scenario.getRate()).append("/s] actual rate [")
+                .append(String.format("%.2f", (this.arrivals.sum() - this.skipped.sum()) * 1000.0 / elapsed))
+                .append("/s]\n");
+
+        for (Map.Entry<Scenario.Flow, Stats> entry : this.flowStats.entrySet()) {
+            Scenario.Flow flow = entry.getKey();
+            sb.append("flow ").append(flow.getName()).append(" weight [").append(flow.getWeight()).append("] ")
+                    .append(entry.getValue().getSummary()).append("\n");
+            for (Scenario.Step step : flow.getSteps()) {
+                sb.append("  ").append(step.getLine()).append(": ").append(step.getText()).append(" ")
+                        .append(this.stepStats.get(step).getSummary()).append("\n");
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,44 @@
+package com.genesys.samples.console;
+
+import com.genesys.workspace.WorkspaceApi;
+import com.genesys.workspace.models.User;
+
+public class Session {
+    private String name;
+    private WorkspaceApi api;
+    private User user;
+    private long created;
+    private volatile long lastUsed;
+
+    public Session(String name, WorkspaceApi api, User user) {
+        this.name = name;
+        this.api = api;
+        this.user = user;
+        this.created = System.currentTimeMillis();
+        this.lastUsed = this.created;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public WorkspaceApi getApi() {
+        return this.api;
+    }
+
+    public User getUser() {
+        return this.user;
+    }
+
+    public long getCreated() {
+        return this.created;
+    }
+
+    public long getLastUsed() {
+        return this.lastUsed;
+    }
+
+    public void touch() {
+        this.lastUsed = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,186 @@
+package com.genesys.samples.console;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import com.genesys.workspace.common.WorkspaceApiException;
+import com.genesys.workspace.models.Call;
+import com.genesys.workspace.models.Dn;
+
+// Compares the calls and agent state the console has tracked from events with the state cached by the SDK's
+// VoiceApi. Both are fed by the same notification stream, so this catches events the console lost or handled
+// wrongly and calls restored from a snapshot that have since ended, not notifications missed by the session.
+// Passes are skipped while events are still being handled, since the cache is always ahead of the lanes.
+public class SessionCacheReconciler {
+    private static final long MIN_INTERVAL_MILLIS = 5000;
+    private static final long MAX_INTERVAL_MILLIS = 120000;
+
+    private final CallIndex index;
+    private final CallStateSource source;
+    private final EventLanes lanes;
+    private final Consumer<String> log;
+    private ScheduledExecutorService executor;
+    private ScheduledFuture<?> next;
+    private long interval = MIN_INTERVAL_MILLIS;
+
+    private final LongAdder passes = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder stale = new LongAdder();
+    private final LongAdder missing = new LongAdder();
+    private final LongAdder changed = new LongAdder();
+    private final LongAdder dnChanged = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public SessionCacheReconciler(CallIndex index, CallStateSource source, EventLanes lanes, Consumer<String> log) {
+        this.index = index;
+        this.source = source;
+        this.lanes = lanes;
+        this.log = log;
+    }
+
+    public synchronized void start() {
+        if (this.executor != null) {
+            return;
+        }
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "session-cache-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.interval = MIN_INTERVAL_MILLIS;
+        this.next = this.executor.schedule(this::run, 0, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+            this.executor = null;
+            this.next = null;
+        }
+    }
+
+    private synchronized void schedule() {
+        if (this.executor != null) {
+            this.next = this.executor.schedule(this::run, this.interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void run() {
+        try {
+            int drift = this.reconcile();
+            // Poll quickly while state is drifting and back off while it is not. A skipped pass keeps the interval.
+            if (drift >= 0) {
+                synchronized (this) {
+                    this.interval = drift > 0 ? MIN_INTERVAL_MILLIS : Math.min(MAX_INTERVAL_MILLIS, this.interval * 2);
+                }
+            }
+        } catch (WorkspaceApiException | RuntimeException e) {
+            this.errors.increment();
+            this.log.accept("Reconcile failed: " + e);
+        }
+
+        this.schedule();
+    }
+
+    // Returns the number of discrepancies corrected, or -1 when the pass was skipped. Synchronized so the reconcile
+    // command can't run alongside a scheduled pass.
+    public synchronized int reconcile() throws WorkspaceApiException {
+        long dispatched = this.lanes.getDispatched();
+        if (!this.isSettled(dispatched)) {
+            this.skipped.increment();
+            return -1;
+        }
+
+        Collection<Call> calls = this.source.fetchCalls();
+        Dn dn = this.source.fetchDn();
+        if (!this.isSettled(dispatched)) {
+            // An event arrived while reading, so the cache may be ahead of what the lanes have handled.
+            this.skipped.increment();
+            return -1;
+        }
+
+        this.passes.increment();
+        int drift = 0;
+        Map<String, Call> actual = new HashMap<>();
+        for (Call call : calls) {
+            actual.put(call.getId(), call);
+        }
+
+        for (TrackedCall tracked : this.index.getCalls()) {
+            if (!actual.containsKey(tracked.getConnId())) {
+                // A call that arrived after the read is newer than the cache, so stop rather than drop it.
+                if (!this.isSettled(dispatched)) {
+                    this.skipped.increment();
+                    return drift;
+                }
+                if (!this.index.remove(tracked)) {
+                    continue;
+                }
+                this.stale.increment();
+                drift++;
+                this.log.accept("Reconcile: removed stale call [" + tracked.getConnId() + "] state [" + tracked.getState() + "]");
+            }
+        }
+
+        for (Call call : actual.values()) {
+            if (!this.isSettled(dispatched)) {
+                this.skipped.increment();
+                return drift;
+            }
+            TrackedCall tracked = this.index.get(call.getId());
+            if (tracked == null) {
+                this.missing.increment();
+                drift++;
+                this.log.accept("Reconcile: added missing call [" + call.getId() + "] state [" + call.getState() + "]");
+            } else if (!tracked.matches(call)) {
+                this.changed.increment();
+                drift++;
+                this.log.accept("Reconcile: call [" + call.getId() + "] state [" + tracked.getState()
+                        + "] corrected to [" + call.getState() + "]");
+            } else {
+                continue;
+            }
+
+            this.index.update(call);
+        }
+
+        if (dn != null && dn.getAgentState() != this.index.getAgentState() && this.isSettled(dispatched)) {
+            if (this.index.getAgentState() != null) {
+                this.dnChanged.increment();
+                drift++;
+                this.log.accept("Reconcile: dn [" + dn.getNumber() + "] state [" + this.index.getAgentState()
+                        + "] corrected to [" + dn.getAgentState() + "]");
+            }
+
+            this.index.updateDn(dn);
+        }
+
+        return drift;
+    }
+
+    // Nothing queued or being handled, and no event dispatched since the count was taken.
+    private boolean isSettled(long dispatched) {
+        return this.lanes.getPending() == 0 && this.lanes.getDispatched() == dispatched;
+    }
+
+    public synchronized String getSummary() {
+        return "Session cache reconciler:\n"
+                + "running: " + (this.executor != null) + "\n"
+                + "interval: " + this.interval + " ms\n"
+                + "passes: " + this.passes.sum() + "\n"
+                + "skipped while handling events: " + this.skipped.sum() + "\n"
+                + "stale calls removed: " + this.stale.sum() + "\n"
+                + "missing calls added: " + this.missing.sum() + "\n"
+                + "calls corrected: " + this.changed.sum() + "\n"
+                + "dn corrected: " + this.dnChanged.sum() + "\n"
+                + "errors: " + this.errors.sum() + "\n";
+    }
+}
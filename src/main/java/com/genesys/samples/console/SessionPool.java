@@ -0,0 +1,340 @@
+package com.genesys.samples.console;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.genesys.workspace.WorkspaceApi;
+
+public class SessionPool {
+    private static final long MAINTENANCE_MILLIS = 30000;
+
+    public static class Agent {
+        private String name;
+        private String username;
+        private String password;
+        private String agentId;
+        private String dn;
+
+        public Agent(String name, String username, String password, String agentId, String dn) {
+            this.name = name;
+            this.username = username;
+            this.password = password;
+            this.agentId = agentId;
+            this.dn = dn;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public String getUsername() {
+            return this.username;
+        }
+
+        public String getPassword() {
+            return this.password;
+        }
+
+        public String getAgentId() {
+            return this.agentId;
+        }
+
+        public String getDn() {
+            return this.dn;
+        }
+    }
+
+    public interface Factory {
+        Session create(Agent agent) throws Exception;
+
+        void destroy(Session session) throws Exception;
+    }
+
+    private final Map<String, Agent> agents;
+    private final Factory factory;
+    private final Consumer<String> log;
+    private final int warmSize;
+    private final long idleMillis;
+    private final long refreshMillis;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+    private volatile String active;
+    // Sessions in use by a running scenario, which must not be evicted or refreshed underneath it.
+    private final Set<String> pinned = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService executor;
+
+    public SessionPool(Map<String, Agent> agents, Factory factory, Consumer<String> log,
+                       int warmSize, long idleMillis, long refreshMillis) {
+        this.agents = agents;
+        this.factory = factory;
+        this.log = log;
+        this.warmSize = warmSize;
+        this.idleMillis = idleMillis;
+        this.refreshMillis = refreshMillis;
+    }
+
+    // Each line holds: name username password agentId dn
+    public static Map<String, Agent> loadAgents(String fileName) throws WorkspaceConsoleException {
+        Map<String, Agent> agents = new LinkedHashMap<>();
+        try {
+            for (String line : Files.readAllLines(Paths.get(fileName))) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                String[] fields = line.split("\\s+");
+                if (fields.length != 5) {
+                    throw new WorkspaceConsoleException("Invalid session pool entry [" + line + "]");
+                }
+                agents.put(fields[0], new Agent(fields[0], fields[1], fields[2], fields[3], fields[4]));
+            }
+        } catch (IOException e) {
+            throw new WorkspaceConsoleException("Failed to read session pool file [" + fileName + "]", e);
+        }
+
+        return agents;
+    }
+
+    public synchronized void start() {
+        if (this.executor != null) {
+            return;
+        }
+
+        this.executor = Executors.newScheduledThreadPool(2, r -> {
+            Thread thread = new Thread(r, "session-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        int count = 0;
+        for (Agent agent : this.agents.values()) {
+            if (count++ >= this.warmSize) {
+                break;
+            }
+            this.executor.execute(() -> this.warm(agent));
+        }
+
+        this.executor.scheduleWithFixedDelay(this::maintain, MAINTENANCE_MILLIS, MAINTENANCE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        ScheduledExecutorService executor;
+        synchronized (this) {
+            executor = this.executor;
+            this.executor = null;
+        }
+
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+
+        for (Session session : new ArrayList<>(this.sessions.values())) {
+            if (!session.getName().equals(this.active)) {
+                this.destroy(session);
+            }
+        }
+    }
+
+    public Session acquire(String name) throws WorkspaceConsoleException {
+        Agent agent = this.agents.get(name);
+        if (agent == null) {
+            throw new WorkspaceConsoleException("Unknown agent [" + name + "]");
+        }
+
+        String previous = this.active;
+        Session session;
+        synchronized (this.lock(name)) {
+            session = this.sessions.get(name);
+            if (session == null) {
+                session = this.create(agent);
+            }
+
+            session.touch();
+            this.active = name;
+        }
+
+        // The idle time of the previous session starts now.
+        Session previousSession = previous != null && !previous.equals(name) ? this.sessions.get(previous) : null;
+        if (previousSession != null) {
+            previousSession.touch();
+        }
+
+        return session;
+    }
+
+    public List<Session> pinAll() throws WorkspaceConsoleException {
+        List<Session> pinnedSessions = new ArrayList<>();
+        try {
+            for (Agent agent : this.agents.values()) {
+                synchronized (this.lock(agent.getName())) {
+                    Session session = this.sessions.get(agent.getName());
+                    if (session == null) {
+                        session = this.create(agent);
+                    }
+
+                    session.touch();
+                    this.pinned.add(agent.getName());
+                    pinnedSessions.add(session);
+                }
+            }
+        } catch (WorkspaceConsoleException | RuntimeException e) {
+            // Don't leave the sessions pinned so far out of maintenance for good.
+            pinnedSessions.forEach(session -> this.pinned.remove(session.getName()));
+            throw e;
+        }
+
+        return pinnedSessions;
+    }
+
+    public void unpinAll() {
+        for (String name : this.pinned) {
+            Session session = this.sessions.get(name);
+            if (session != null) {
+                session.touch();
+            }
+        }
+        this.pinned.clear();
+    }
+
+    public boolean contains(WorkspaceApi api) {
+        return this.sessions.values().stream().anyMatch(s -> s.getApi() == api);
+    }
+
+    public void remove(WorkspaceApi api) {
+        this.sessions.values().removeIf(s -> {
+            if (s.getApi() == api) {
+                if (s.getName().equals(this.active)) {
+                    this.active = null;
+                }
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private Object lock(String name) {
+        return this.locks.computeIfAbsent(name, n -> new Object());
+    }
+
+    private Session create(Agent agent) throws WorkspaceConsoleException {
+        try {
+            Session session = this.factory.create(agent);
+            this.sessions.put(agent.getName(), session);
+            return session;
+        } catch (Exception e) {
+            throw new WorkspaceConsoleException("Failed to create session for agent [" + agent.getName() + "]", e);
+        }
+    }
+
+    private void warm(Agent agent) {
+        synchronized (this.lock(agent.getName())) {
+            if (this.sessions.containsKey(agent.getName())) {
+                return;
+            }
+
+            try {
+                this.create(agent);
+                this.log.accept("Session pool: agent [" + agent.getName() + "] ready.");
+            } catch (WorkspaceConsoleException e) {
+                this.log.accept("Session pool: " + e.getMessage() + ": " + e.getCause());
+            }
+        }
+    }
+
+    private void destroy(Session session) {
+        this.sessions.remove(session.getName(), session);
+        try {
+            this.factory.destroy(session);
+        } catch (Exception e) {
+            this.log.accept("Session pool: failed to destroy session for agent [" + session.getName() + "]: " + e);
+        }
+    }
+
+    private void maintain() {
+        long now = System.currentTimeMillis();
+        List<Session> idle = new ArrayList<>();
+        for (Session session : this.sessions.values()) {
+            if (!session.getName().equals(this.active) && !this.pinned.contains(session.getName())) {
+                idle.add(session);
+            }
+        }
+
+        // Evict the least recently used idle sessions beyond the warm size.
+        idle.sort((a, b) -> Long.compare(a.getLastUsed(), b.getLastUsed()));
+        int excess = this.sessions.size() - this.warmSize;
+        for (Session session : new ArrayList<>(idle)) {
+            if (excess <= 0) {
+                break;
+            }
+
+            if (now - session.getLastUsed() >= this.idleMillis) {
+                synchronized (this.lock(session.getName())) {
+                    // A switch or scenario may have taken the session since the idle list was built.
+                    if (session.getName().equals(this.active) || this.pinned.contains(session.getName())
+                            || this.sessions.get(session.getName()) != session) {
+                        idle.remove(session);
+                        continue;
+                    }
+                    this.destroy(session);
+                }
+                idle.remove(session);
+                excess--;
+                this.log.accept("Session pool: evicted idle agent [" + session.getName() + "].");
+            }
+        }
+
+        // Rebuild idle sessions before their token gets old; the active session is left alone.
+        for (Session session : idle) {
+            if (now - session.getCreated() < this.refreshMillis) {
+                continue;
+            }
+
+            synchronized (this.lock(session.getName())) {
+                if (session.getName().equals(this.active) || this.pinned.contains(session.getName())
+                        || this.sessions.get(session.getName()) != session) {
+                    continue;
+                }
+
+                try {
+                    Session fresh = this.factory.create(this.agents.get(session.getName()));
+                    this.sessions.put(session.getName(), fresh);
+                    this.factory.destroy(session);
+                } catch (Exception e) {
+                    this.log.accept("Session pool: failed to refresh agent [" + session.getName() + "]: " + e);
+                }
+            }
+        }
+    }
+
+    public String getSummary() {
+        long now = System.currentTimeMillis();
+        StringBuilder sb = new StringBuilder("Session pool:\n");
+        for (Agent agent : this.agents.values()) {
+            Session session = this.sessions.get(agent.getName());
+            sb.append(agent.getName()).append(" agentId [").append(agent.getAgentId())
+                    .append("] dn [").append(agent.getDn()).append("] ");
+            if (session == null) {
+                sb.append("cold");
+            } else {
+                sb.append(agent.getName().equals(this.active) ? "active" : "warm")
+                        .append(" age [").append((now - session.getCreated()) / 1000).append(" s]")
+                        .append(" idle [").append((now - session.getLastUsed()) / 1000).append(" s]");
+            }
+            sb.append("\n");
+        }
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,345 @@
+package com.genesys.samples.console;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+import com.genesys.workspace.models.CallState;
+import com.genesys.workspace.models.KeyValueCollection;
+import com.genesys.workspace.models.KeyValuePair;
+
+public class SessionSnapshot {
+    private static final int MAGIC = 0x57534353;
+    private static final int VERSION = 1;
+
+    private static final byte STRING = 1;
+    private static final byte INT = 2;
+    private static final byte LIST = 3;
+
+    private String username;
+    private String baseUrl;
+    private long savedAt;
+
+    private String employeeId;
+    private String agentId;
+    private String defaultPlace;
+    private KeyValueCollection userProperties;
+
+    private List<String> actionCodes = new ArrayList<>();
+    private List<String> agentGroups = new ArrayList<>();
+    private List<String> businessAttributes = new ArrayList<>();
+    private List<String> transactions = new ArrayList<>();
+    private KeyValueCollection settings;
+
+    private List<TrackedCall> calls = new ArrayList<>();
+
+    public SessionSnapshot(String username, String baseUrl) {
+        this.username = username;
+        this.baseUrl = baseUrl;
+    }
+
+    public boolean isFor(String username, String baseUrl) {
+        return Objects.equals(this.username, username) && Objects.equals(this.baseUrl, baseUrl);
+    }
+
+    public void setUser(String employeeId, String agentId, String defaultPlace, KeyValueCollection userProperties) {
+        this.employeeId = employeeId;
+        this.agentId = agentId;
+        this.defaultPlace = defaultPlace;
+        this.userProperties = userProperties;
+    }
+
+    public void setConfiguration(List<String> actionCodes, List<String> agentGroups, List<String> businessAttributes,
+                                 List<String> transactions, KeyValueCollection settings) {
+        this.actionCodes = actionCodes;
+        this.agentGroups = agentGroups;
+        this.businessAttributes = businessAttributes;
+        this.transactions = transactions;
+        this.settings = settings;
+    }
+
+    public void setCalls(Collection<TrackedCall> calls) {
+        this.calls = new ArrayList<>(calls);
+    }
+
+    public List<TrackedCall> getCalls() {
+        return this.calls;
+    }
+
+    public long getSavedAt() {
+        return this.savedAt;
+    }
+
+    public String getUserSummary() {
+        return "User details (snapshot from " + new Date(this.savedAt) + "):\n" +
+                "employeeId: " + this.employeeId + "\n" +
+                "agentId: " + this.agentId + "\n" +
+                "defaultPlace: " + this.defaultPlace + "\n" +
+                "userProperties: " + this.userProperties + "\n";
+    }
+
+    public String getConfigurationSummary(String type) {
+        String header = "Configuration (snapshot from " + new Date(this.savedAt) + "):\n";
+        switch (type) {
+            case "action-codes":
+                return header + summarize("Action Codes", this.actionCodes);
+
+            case "agent-groups":
+                return header + summarize("Agent Groups", this.agentGroups);
+
+            case "ba":
+                return header + summarize("Business Attributes", this.businessAttributes);
+
+            case "txn":
+                return header + summarize("Transactions", this.transactions);
+
+            case "settings":
+                return header + "Settings:\n" + (this.settings == null ? "<none>" : this.settings.toString());
+
+            default:
+                return header + summarize("Action Codes", this.actionCodes) + "\n"
+                        + summarize("Agent Groups", this.agentGroups) + "\n"
+                        + summarize("Business Attributes", this.businessAttributes) + "\n"
+                        + summarize("Transactions", this.transactions) + "\n"
+                        + "Settings:\n" + (this.settings == null ? "<none>" : this.settings.toString()) + "\n";
+        }
+    }
+
+    private static String summarize(String title, List<String> lines) {
+        StringBuilder sb = new StringBuilder(title).append(":\n");
+        if (lines.isEmpty()) {
+            sb.append("<none>\n");
+        }
+        for (String line : lines) {
+            sb.append(line).append("\n");
+        }
+
+        return sb.toString();
+    }
+
+    // Names of the sections that differ from the other snapshot.
+    public List<String> diff(SessionSnapshot other) {
+        List<String> changes = new ArrayList<>();
+        if (!Objects.equals(this.employeeId, other.employeeId)
+                || !Objects.equals(this.agentId, other.agentId)
+                || !Objects.equals(this.defaultPlace, other.defaultPlace)
+                || !Objects.equals(String.valueOf(this.userProperties), String.valueOf(other.userProperties))) {
+            changes.add("user");
+        }
+        if (!this.actionCodes.equals(other.actionCodes)) {
+            changes.add("action-codes");
+        }
+        if (!this.agentGroups.equals(other.agentGroups)) {
+            changes.add("agent-groups");
+        }
+        if (!this.businessAttributes.equals(other.businessAttributes)) {
+            changes.add("ba");
+        }
+        if (!this.transactions.equals(other.transactions)) {
+            changes.add("txn");
+        }
+        if (!Objects.equals(String.valueOf(this.settings), String.valueOf(other.settings))) {
+            changes.add("settings");
+        }
+
+        return changes;
+    }
+
+    public void write(Path path) throws IOException {
+        this.savedAt = System.currentTimeMillis();
+
+        // Write next to the target and move into place so a crash never leaves a partial snapshot.
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(this.savedAt);
+            writeString(out, this.username);
+            writeString(out, this.baseUrl);
+
+            writeString(out, this.employeeId);
+            writeString(out, this.agentId);
+            writeString(out, this.defaultPlace);
+            writeCollection(out, this.userProperties);
+
+            writeStrings(out, this.actionCodes);
+            writeStrings(out, this.agentGroups);
+            writeStrings(out, this.businessAttributes);
+            writeStrings(out, this.transactions);
+            writeCollection(out, this.settings);
+
+            out.writeInt(this.calls.size());
+            for (TrackedCall call : this.calls) {
+                writeString(out, call.getConnId());
+                writeString(out, call.getParentConnId());
+                writeString(out, call.getState() != null ? call.getState().name() : null);
+                String[] participants = call.getParticipants();
+                out.writeInt(participants != null ? participants.length : -1);
+                if (participants != null) {
+                    for (String participant : participants) {
+                        writeString(out, participant);
+                    }
+                }
+                out.writeLong(call.getStarted());
+            }
+        }
+
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static SessionSnapshot read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a session snapshot [" + path + "]");
+            }
+
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported session snapshot version [" + version + "]");
+            }
+
+            long savedAt = in.readLong();
+            SessionSnapshot snapshot = new SessionSnapshot(readString(in), readString(in));
+            snapshot.savedAt = savedAt;
+
+            snapshot.employeeId = readString(in);
+            snapshot.agentId = readString(in);
+            snapshot.defaultPlace = readString(in);
+            snapshot.userProperties = readCollection(in);
+
+            snapshot.actionCodes = readStrings(in);
+            snapshot.agentGroups = readStrings(in);
+            snapshot.businessAttributes = readStrings(in);
+            snapshot.transactions = readStrings(in);
+            snapshot.settings = readCollection(in);
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String connId = readString(in);
+                String parentConnId = readString(in);
+                String state = readString(in);
+                int participantCount = in.readInt();
+                String[] participants = participantCount >= 0 ? new String[participantCount] : null;
+                for (int j = 0; j < participantCount; j++) {
+                    participants[j] = readString(in);
+                }
+                long started = in.readLong();
+
+                snapshot.calls.add(new TrackedCall(connId, parentConnId,
+                        state != null ? CallState.valueOf(state) : null, participants, started));
+            }
+
+            return snapshot;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(readString(in));
+        }
+
+        return values;
+    }
+
+    private static void writeCollection(DataOutputStream out, KeyValueCollection collection) throws IOException {
+        if (collection == null) {
+            out.writeInt(-1);
+            return;
+        }
+
+        List<KeyValuePair> pairs = new ArrayList<>();
+        collection.forEach(pairs::add);
+        out.writeInt(pairs.size());
+        for (KeyValuePair pair : pairs) {
+            writeString(out, pair.getKey());
+            switch (pair.getValueType()) {
+                case INT:
+                    out.writeByte(INT);
+                    out.writeInt(pair.getIntValue());
+                    break;
+
+                case LIST:
+                    out.writeByte(LIST);
+                    writeCollection(out, pair.getListValue());
+                    break;
+
+                default:
+                    out.writeByte(STRING);
+                    writeString(out, pair.getStringValue());
+            }
+        }
+    }
+
+    private static KeyValueCollection readCollection(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0) {
+            return null;
+        }
+
+        KeyValueCollection collection = new KeyValueCollection();
+        for (int i = 0; i < count; i++) {
+            String key = readString(in);
+            byte type = in.readByte();
+            switch (type) {
+                case INT:
+                    collection.addInt(key, in.readInt());
+                    break;
+
+                case LIST:
+                    collection.addList(key, readCollection(in));
+                    break;
+
+                case STRING:
+                    collection.addString(key, readString(in));
+                    break;
+
+                default:
+                    throw new IOException("Unknown value type [" + type + "]");
+            }
+        }
+
+        return collection;
+    }
+}
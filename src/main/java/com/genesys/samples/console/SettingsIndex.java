@@ -0,0 +1,138 @@
+package com.genesys.samples.console;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.genesys.workspace.models.KeyValueCollection;
+import com.genesys.workspace.models.KeyValuePair;
+import com.genesys.workspace.models.KeyValueType;
+
+public class SettingsIndex {
+    public static final char SEPARATOR = '/';
+
+    // Cached lookups that found nothing, so misses are not re-parsed either.
+    private static final Object NONE = new Object();
+
+    private final NavigableMap<String, KeyValuePair> entries = new TreeMap<>();
+    private final Map<String, Object> strings = new ConcurrentHashMap<>();
+    private final Map<String, Object> ints = new ConcurrentHashMap<>();
+    private final Map<String, Object> booleans = new ConcurrentHashMap<>();
+
+    public SettingsIndex(KeyValueCollection settings) {
+        if (settings != null) {
+            this.index("", settings);
+        }
+    }
+
+    private void index(String prefix, KeyValueCollection collection) {
+        for (KeyValuePair pair : collection) {
+            String path = prefix + pair.getKey();
+            this.entries.put(path, pair);
+            if (pair.getValueType() == KeyValueType.LIST && pair.getListValue() != null) {
+                this.index(path + SEPARATOR, pair.getListValue());
+            }
+        }
+    }
+
+    public int size() {
+        return this.entries.size();
+    }
+
+    public KeyValuePair get(String path) {
+        return this.entries.get(path);
+    }
+
+    public String getString(String path) {
+        return this.lookup(this.strings, path, pair -> {
+            switch (pair.getValueType()) {
+                case STRING:
+                    return pair.getStringValue();
+                case INT:
+                    return String.valueOf(pair.getIntValue());
+                default:
+                    return null;
+            }
+        });
+    }
+
+    public Integer getInt(String path) {
+        return this.lookup(this.ints, path, pair -> {
+            if (pair.getValueType() == KeyValueType.INT) {
+                return pair.getIntValue();
+            }
+
+            try {
+                return pair.getValueType() == KeyValueType.STRING ? Integer.valueOf(pair.getStringValue().trim()) : null;
+            } catch (NumberFormatException | NullPointerException e) {
+                return null;
+            }
+        });
+    }
+
+    public Boolean getBoolean(String path) {
+        return this.lookup(this.booleans, path, pair -> {
+            String value = pair.getValueType() == KeyValueType.INT ? String.valueOf(pair.getIntValue())
+                    : pair.getValueType() == KeyValueType.STRING ? pair.getStringValue() : null;
+            if (value == null) {
+                return null;
+            }
+
+            switch (value.trim().toLowerCase()) {
+                case "true":
+                case "yes":
+                case "1":
+                    return Boolean.TRUE;
+                case "false":
+                case "no":
+                case "0":
+                    return Boolean.FALSE;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    // The path itself and every path below it, in order. "section" doesn't match "section2" or "sectionFoo".
+    public SortedMap<String, KeyValuePair> list(String prefix) {
+        if (prefix == null || prefix.isEmpty()) {
+            return this.entries;
+        }
+
+        String path = prefix.charAt(prefix.length() - 1) == SEPARATOR ? prefix.substring(0, prefix.length() - 1) : prefix;
+        SortedMap<String, KeyValuePair> matches = new TreeMap<>();
+        KeyValuePair pair = this.entries.get(path);
+        if (pair != null) {
+            matches.put(path, pair);
+        }
+        // Children sort between "path/" and "path0", the character after the separator.
+        matches.putAll(this.entries.subMap(path + SEPARATOR, true, path + (char) (SEPARATOR + 1), false));
+        return matches;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T lookup(Map<String, Object> cache, String path, Function<KeyValuePair, T> parser) {
+        Object value = cache.computeIfAbsent(path, p -> {
+            KeyValuePair pair = this.entries.get(p);
+            T parsed = pair != null ? parser.apply(pair) : null;
+            return parsed != null ? parsed : NONE;
+        });
+
+        return value == NONE ? null : (T) value;
+    }
+
+    public static String describe(KeyValuePair pair) {
+        switch (pair.getValueType()) {
+            case LIST:
+                KeyValueCollection list = pair.getListValue();
+                return "<section, " + (list != null ? list.size() : 0) + " keys>";
+            case INT:
+                return String.valueOf(pair.getIntValue());
+            default:
+                return pair.getStringValue();
+        }
+    }
+}
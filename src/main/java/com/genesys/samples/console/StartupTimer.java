@@ -0,0 +1,37 @@
+package com.genesys.samples.console;
+
+import java.time.Instant;
+
+public class StartupTimer {
+    private final long startMillis;
+    private long promptMillis;
+    private long readyMillis;
+
+    public StartupTimer() {
+        // Measure from process start so JVM boot and class loading are included.
+        this.startMillis = ProcessHandle.current().info().startInstant()
+                .map(Instant::toEpochMilli)
+                .orElse(System.currentTimeMillis());
+    }
+
+    public synchronized void markPrompt() {
+        if (this.promptMillis == 0) {
+            this.promptMillis = System.currentTimeMillis();
+        }
+    }
+
+    public synchronized void markReady() {
+        if (this.readyMillis == 0) {
+            this.readyMillis = System.currentTimeMillis();
+        }
+    }
+
+    public synchronized String getSummary() {
+        return "Startup: time-to-prompt [" + this.format(this.promptMillis)
+                + "] time-to-ready [" + this.format(this.readyMillis) + "]";
+    }
+
+    private String format(long millis) {
+        return millis == 0 ? "pending" : (millis - this.startMillis) + " ms";
+    }
+}
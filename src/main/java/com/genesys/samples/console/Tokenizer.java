@@ -0,0 +1,80 @@
+package com.genesys.samples.console;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Splits a command line on whitespace. Single or double quotes group words into one token, and quotes may start
+// mid-token so key="some value" stays a single token. A backslash escapes a quote, whitespace or another backslash
+// outside quotes, and only the closing quote or a backslash inside them, so paths like C:\dir\file keep theirs.
+// Not thread safe, the builder is reused between lines.
+public class Tokenizer {
+    private final StringBuilder token = new StringBuilder();
+
+    public List<String> tokenize(String line) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = this.token;
+        // Tokens without quotes or escapes are cut straight out of the line; the builder is only filled once a
+        // token turns out to need unquoting.
+        int start = -1;
+        boolean building = false;
+        char quote = 0;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quote == 0 && Character.isWhitespace(c)) {
+                if (building) {
+                    tokens.add(token.toString());
+                    building = false;
+                } else if (start >= 0) {
+                    tokens.add(line.substring(start, i));
+                }
+                start = -1;
+                continue;
+            }
+
+            boolean escape = c == '\\' && i + 1 < line.length() && isEscapable(line.charAt(i + 1), quote);
+            boolean special = escape || c == quote || (quote == 0 && (c == '"' || c == '\''));
+            if (special && !building) {
+                token.setLength(0);
+                if (start >= 0) {
+                    token.append(line, start, i);
+                }
+                building = true;
+            }
+            if (start < 0) {
+                start = i;
+            }
+
+            if (escape) {
+                token.append(line.charAt(++i));
+            } else if (c == quote) {
+                quote = 0;
+            } else if (quote == 0 && (c == '"' || c == '\'')) {
+                quote = c;
+            } else if (building) {
+                token.append(c);
+            }
+        }
+
+        // An unterminated quote runs to the end of the line.
+        if (building) {
+            tokens.add(token.toString());
+        } else if (start >= 0) {
+            tokens.add(line.substring(start));
+        }
+        return tokens;
+    }
+
+    private static boolean isEscapable(char next, char quote) {
+        if (quote != 0) {
+            return next == quote || next == '\\';
+        }
+        return next == '"' || next == '\'' || next == '\\' || Character.isWhitespace(next);
+    }
+
+    // Returns the position of the '=' separating key from value, or -1 if the token isn't a pair.
+    public static int pairSeparator(String token) {
+        int index = token.indexOf('=');
+        return index > 0 ? index : -1;
+    }
+}
@@ -0,0 +1,69 @@
+package com.genesys.samples.console;
+
+import java.util.Arrays;
+
+import com.genesys.workspace.models.Call;
+import com.genesys.workspace.models.CallState;
+
+public class TrackedCall {
+    private String connId;
+    private String parentConnId;
+    private CallState state;
+    private String[] participants;
+    private long started;
+
+    public TrackedCall(Call call) {
+        this.connId = Interner.intern(call.getId());
+        this.update(call);
+        this.started = System.currentTimeMillis();
+    }
+
+    public TrackedCall(String connId, String parentConnId, CallState state, String[] participants, long started) {
+        this.connId = Interner.intern(connId);
+        this.parentConnId = Interner.intern(parentConnId);
+        this.state = state;
+        this.participants = Interner.intern(participants);
+        this.started = started;
+    }
+
+    public void update(Call call) {
+        this.parentConnId = Interner.intern(call.getParentConnId());
+        this.state = call.getState();
+        if (!Arrays.equals(this.participants, call.getParticipants())) {
+            this.participants = Interner.intern(call.getParticipants());
+        }
+    }
+
+    public boolean matches(Call call) {
+        return this.state == call.getState()
+                && Arrays.equals(this.participants, call.getParticipants())
+                && (this.parentConnId == null ? call.getParentConnId() == null : this.parentConnId.equals(call.getParentConnId()));
+    }
+
+    public void estimate(MemoryEstimator estimator) {
+        estimator.addObject(4, 8);
+        estimator.addString(this.connId);
+        estimator.addString(this.parentConnId);
+        estimator.addArray(this.participants);
+    }
+
+    public String getConnId() {
+        return this.connId;
+    }
+
+    public String getParentConnId() {
+        return this.parentConnId;
+    }
+
+    public CallState getState() {
+        return this.state;
+    }
+
+    public String[] getParticipants() {
+        return this.participants;
+    }
+
+    public long getStarted() {
+        return this.started;
+    }
+}
@@ -0,0 +1,146 @@
+package com.genesys.samples.console;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.genesys.workspace.models.KeyValueCollection;
+import com.genesys.workspace.models.KeyValuePair;
+
+// Remembers the last userData seen per call so events only need to show what changed. Bounded by the
+// number of calls (least recently updated are dropped), keys per call and value length. Each call's data is
+// kept as one array of alternating keys and values, with keys and short values interned.
+public class UserDataTracker {
+    private static final int MAX_KEYS = 512;
+    private static final int MAX_VALUE_LENGTH = 1024;
+    private static final int MAX_INTERNED_LENGTH = 64;
+
+    private final int maxCalls;
+    private final LinkedHashMap<String, String[]> calls;
+
+    public UserDataTracker(int maxCalls) {
+        this.maxCalls = maxCalls;
+        this.calls = new LinkedHashMap<String, String[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String[]> eldest) {
+                return this.size() > UserDataTracker.this.maxCalls;
+            }
+        };
+    }
+
+    // Records the call's current userData and returns the added, changed and removed keys, or null if none.
+    public synchronized String update(String connId, KeyValueCollection userData) {
+        Map<String, String> current = this.flatten(userData);
+        String[] previousPairs = this.calls.put(Interner.intern(connId), this.toPairs(current));
+        Map<String, String> previous = new HashMap<>();
+        for (int i = 0; previousPairs != null && i < previousPairs.length; i += 2) {
+            previous.put(previousPairs[i], previousPairs[i + 1]);
+        }
+
+        StringBuilder delta = new StringBuilder();
+        for (Map.Entry<String, String> entry : current.entrySet()) {
+            String old = previous.get(entry.getKey());
+            if (old == null) {
+                delta.append(" +").append(entry.getKey()).append('=').append(entry.getValue());
+            } else if (!old.equals(entry.getValue())) {
+                delta.append(" ~").append(entry.getKey()).append('=').append(entry.getValue());
+            }
+        }
+        for (String key : previous.keySet()) {
+            if (!current.containsKey(key)) {
+                delta.append(" -").append(key);
+            }
+        }
+
+        return delta.length() > 0 ? "[" + delta.substring(1) + "]" : null;
+    }
+
+    public synchronized void rename(String previousConnId, String connId) {
+        String[] pairs = this.calls.remove(previousConnId);
+        if (pairs != null) {
+            this.calls.put(Interner.intern(connId), pairs);
+        }
+    }
+
+    public synchronized void remove(String connId) {
+        this.calls.remove(connId);
+    }
+
+    public synchronized void clear() {
+        this.calls.clear();
+    }
+
+    public synchronized String describe(String connId) {
+        String[] pairs = this.calls.get(connId);
+        if (pairs == null) {
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        if (pairs.length == 0) {
+            sb.append("<none>\n");
+        }
+        for (int i = 0; i < pairs.length; i += 2) {
+            sb.append("  ").append(pairs[i]).append(" = ").append(pairs[i + 1]).append("\n");
+        }
+        return sb.toString();
+    }
+
+    public synchronized String getSummary() {
+        int keys = 0;
+        for (String[] pairs : this.calls.values()) {
+            keys += pairs.length / 2;
+        }
+        return "userData: calls [" + this.calls.size() + "/" + this.maxCalls + "] keys [" + keys + "]";
+    }
+
+    public synchronized void estimate(MemoryEstimator estimator) {
+        for (Map.Entry<String, String[]> entry : this.calls.entrySet()) {
+            // Linked map entry: hash, key, value, next, before and after.
+            estimator.addObject(5, 4);
+            estimator.addString(entry.getKey());
+            estimator.addArray(entry.getValue());
+        }
+    }
+
+    private String[] toPairs(Map<String, String> values) {
+        String[] pairs = new String[values.size() * 2];
+        int i = 0;
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            pairs[i++] = Interner.intern(entry.getKey());
+            String value = entry.getValue();
+            pairs[i++] = value.length() <= MAX_INTERNED_LENGTH ? Interner.intern(value) : value;
+        }
+        return pairs;
+    }
+
+    private Map<String, String> flatten(KeyValueCollection userData) {
+        Map<String, String> values = new LinkedHashMap<>();
+        if (userData == null) {
+            return values;
+        }
+
+        Iterator<KeyValuePair> pairs = userData.iterator();
+        while (pairs.hasNext() && values.size() < MAX_KEYS) {
+            KeyValuePair pair = pairs.next();
+            String value;
+            switch (pair.getValueType()) {
+                case INT:
+                    value = String.valueOf(pair.getIntValue());
+                    break;
+                case LIST:
+                    value = Json.object(pair.getListValue());
+                    break;
+                default:
+                    value = pair.getStringValue();
+            }
+
+            if (value != null && value.length() > MAX_VALUE_LENGTH) {
+                value = value.substring(0, MAX_VALUE_LENGTH) + "...";
+            }
+            values.put(pair.getKey(), String.valueOf(value));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,166 @@
+package com.genesys.samples.console;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import com.genesys.workspace.WorkspaceApi;
+import com.genesys.workspace.models.KeyValueCollection;
+
+// Coalesces user events per callUuid: events queued within the window are merged into one request. A repeated key
+// is sent once per event, since userData may hold duplicate keys. A call's batch is sent on the session it was
+// queued for, when it reaches the size limit, when its window expires or on flush.
+public class UserEventBatcher {
+    public interface Sender {
+        void send(WorkspaceApi api, String callUuid, KeyValueCollection userData) throws Exception;
+    }
+
+    private class Batch {
+        private final WorkspaceApi api;
+        private final String callUuid;
+        // Alternating keys and values, in the order they were queued.
+        private final List<String> data = new ArrayList<>();
+        private int events;
+        private ScheduledFuture<?> timer;
+
+        private Batch(WorkspaceApi api, String callUuid) {
+            this.api = api;
+            this.callUuid = callUuid;
+        }
+    }
+
+    private final Sender sender;
+    private final long windowMillis;
+    private final int maxKeys;
+    private final Consumer<String> log;
+    private final Map<String, Batch> batches = new LinkedHashMap<>();
+    private final LongAdder events = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private ScheduledExecutorService timer;
+
+    public UserEventBatcher(Sender sender, long windowMillis, int maxKeys, Consumer<String> log) {
+        this.sender = sender;
+        this.windowMillis = windowMillis;
+        this.maxKeys = maxKeys;
+        this.log = log;
+    }
+
+    public void queue(WorkspaceApi api, String callUuid, String key, String value) {
+        Batch other = null;
+        Batch full = null;
+        synchronized (this) {
+            this.events.increment();
+            Batch batch = this.batches.get(callUuid);
+            if (batch != null && batch.api != api) {
+                // Queued on another session, which has to send its own events.
+                other = this.take(callUuid);
+                batch = null;
+            }
+            if (batch == null) {
+                batch = new Batch(api, callUuid);
+                this.batches.put(callUuid, batch);
+            }
+            batch.data.add(key);
+            batch.data.add(value);
+            batch.events++;
+
+            if (batch.data.size() / 2 >= this.maxKeys) {
+                full = this.take(callUuid);
+            } else if (batch.timer == null) {
+                batch.timer = this.getTimer().schedule(() -> this.flush(callUuid), this.windowMillis,
+                        TimeUnit.MILLISECONDS);
+            }
+        }
+
+        if (other != null) {
+            this.send(other);
+        }
+        if (full != null) {
+            this.send(full);
+        }
+    }
+
+    // Returns the number of requests sent.
+    public int flush() {
+        List<Batch> pending;
+        synchronized (this) {
+            pending = new ArrayList<>(this.batches.values());
+            pending.forEach(batch -> this.take(batch.callUuid));
+        }
+
+        pending.forEach(this::send);
+        return pending.size();
+    }
+
+    private void flush(String callUuid) {
+        Batch batch;
+        synchronized (this) {
+            batch = this.take(callUuid);
+        }
+
+        if (batch != null) {
+            this.send(batch);
+        }
+    }
+
+    private Batch take(String callUuid) {
+        Batch batch = this.batches.remove(callUuid);
+        if (batch != null && batch.timer != null) {
+            batch.timer.cancel(false);
+        }
+        return batch;
+    }
+
+    private void send(Batch batch) {
+        KeyValueCollection userData = new KeyValueCollection();
+        for (int i = 0; i < batch.data.size(); i += 2) {
+            userData.addString(batch.data.get(i), batch.data.get(i + 1));
+        }
+        this.requests.increment();
+        try {
+            this.sender.send(batch.api, batch.callUuid, userData);
+        } catch (Exception e) {
+            this.failures.increment();
+            this.log.accept("Failed to send [" + batch.events + "] user events for callUuid [" + batch.callUuid
+                    + "]: " + e);
+        }
+    }
+
+    private synchronized ScheduledExecutorService getTimer() {
+        if (this.timer == null) {
+            this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "user-events");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return this.timer;
+    }
+
+    public void stop() {
+        this.flush();
+        synchronized (this) {
+            if (this.timer != null) {
+                this.timer.shutdownNow();
+                this.timer = null;
+            }
+        }
+    }
+
+    public synchronized String getSummary() {
+        int pending = 0;
+        for (Batch batch : this.batches.values()) {
+            pending += batch.events;
+        }
+        return "User events: queued [" + this.events.sum() + "] requests [" + this.requests.sum() + "] failed ["
+                + this.failures.sum() + "] pending [" + pending + "] in [" + this.batches.size() + "] calls";
+    }
+}
@@ -1,11 +1,27 @@
 package com.genesys.samples.console;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.Base64;
+import java.util.Date;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Scanner;
+import java.util.Set;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import com.genesys.internal.authentication.api.AuthenticationApi;
 import com.genesys.internal.authentication.model.DefaultOAuth2AccessToken;
@@ -20,30 +36,218 @@ import com.genesys.workspace.WorkspaceApi;
 import com.genesys.workspace.common.WorkspaceApiException;
 
 public class WorkspaceConsole {
+    // Operations that leave the same state when repeated, so they may be retried after a timeout.
+    private static final Set<String> RETRY_SAFE = new HashSet<>(Arrays.asList("search", "setAgentReady",
+            "setAgentNotReady", "dndOn", "dndOff", "setForward", "cancelForward", "holdCall", "retrieveCall",
+            "updateUserData", "deleteUserDataPair"));
+
     private Options options;
-    private WorkspaceApi api;
+    private volatile WorkspaceApi api;
+    private AuthenticationApi authApi;
     private User user;
+    private StartupTimer startupTimer = new StartupTimer();
+    private CompletableFuture<Void> autoLogin;
+    private CallWatcher callWatcher = new CallWatcher();
+    // Each session has its own rate limit and circuit breaker, so one agent can't throttle or trip the others.
+    private final Map<WorkspaceApi, RequestPolicy> policies = new ConcurrentHashMap<>();
+    private CallIndex callIndex = new CallIndex();
+    private SessionCacheReconciler reconciler;
+    private Dashboard dashboard;
+    private SessionPool sessionPool;
+    private SessionSnapshot snapshot;
+    private ScheduledExecutorService snapshotWriter;
+    private final Object snapshotLock = new Object();
+    private boolean switched;
+    private SettingsIndex settingsIndex;
+    private EventMonitor eventMonitor;
+    private EventLanes eventLanes;
+    private UserDataTracker userData;
+    private volatile ScenarioEngine scenario;
+    private UserEventBatcher userEvents;
+    private Profiler profiler = new Profiler();
+    private Thread consoleThread;
+    private CommandEvent commandEvent;
+    private Scanner input = new Scanner(System.in);
+    private Tokenizer tokenizer = new Tokenizer();
+    private CommandTable commands;
+    private boolean running = true;
 
     public WorkspaceConsole(Options options) {
         this.options = options;
-        this.api = new WorkspaceApi(
-                options.getApiKey(),
-                options.getBaseUrl());
-
-        this.api.voice().addCallEventListener(msg -> {
-            if (msg.getPreviousConnId() != null) {
-                this.write("Call [" + msg.getPreviousConnId() + "] id changed to ["
-                        + msg.getCall().getId());
-            } else {
-                this.write("CallStateChanged [" + msg.getNotificationType() + "]: " + this.getCallSummary(msg.getCall()));
+        this.dashboard = new Dashboard(this.callIndex, () -> this.getPolicy(this.getApi()), this::getDashboardDnSummary,
+                System.out, options.getDashboardFps());
+        this.eventMonitor = new EventMonitor(options.getLagThresholdMillis(), msg -> {
+            this.dashboard.addError(msg);
+            this.write(msg);
+        });
+        this.userData = new UserDataTracker(options.getUserDataMaxCalls());
+        this.userEvents = new UserEventBatcher(
+                (api, callUuid, userData) -> this.execute(api, "sendUserEvent", null, () -> {
+                    api.voice().sendUserEvent(userData, callUuid);
+                    return null;
+                }),
+                options.getUserEventWindowMillis(), options.getUserEventBatchSize(), this::write);
+        this.eventLanes = new EventLanes(options.getEventLanes(), msg -> {
+            this.dashboard.addError(msg);
+            this.write(msg);
+        });
+        this.reconciler = new SessionCacheReconciler(this.callIndex, new CallStateSource() {
+            // Local reads of the SDK's cache, so they don't go through the request policy or the audit log.
+            @Override
+            public Collection<Call> fetchCalls() {
+                return getApi().voice().getCalls();
+            }
+
+            @Override
+            public Dn fetchDn() {
+                return getApi().voice().getDn();
+            }
+        }, this.eventLanes, this::write);
+        this.commands = this.createCommands();
+    }
+
+    private synchronized WorkspaceApi getApi() {
+        if (this.api == null) {
+            this.api = this.createApi();
+        }
+
+        return this.api;
+    }
+
+    private WorkspaceApi createApi() {
+        WorkspaceApi api = new WorkspaceApi(
+                this.options.getApiKey(),
+                this.options.getBaseUrl());
+
+        // Only the active session's events are shown; pooled sessions stay quiet until switched to.
+        api.voice().addCallEventListener(msg -> {
+            ScenarioEngine scenario = this.scenario;
+            if (scenario != null) {
+                scenario.onCall(api, msg.getCall());
+            }
+            if (api == this.api) {
+                long arrived = this.eventMonitor.arrived();
+                String previousConnId = msg.getPreviousConnId();
+                Call call = msg.getCall();
+                Object notificationType = msg.getNotificationType();
+                this.eventLanes.dispatchCall(call.getId(), previousConnId, call.getState() == CallState.RELEASED,
+                        () -> this.handleCallEvent(arrived, notificationType, previousConnId, call));
             }
         });
-        this.api.voice().addDnEventListener(msg -> {
-            this.write("DnStateChanged: " + this.getDnSummary(msg.getDn()));
+        api.voice().addDnEventListener(msg -> {
+            if (api == this.api) {
+                long arrived = this.eventMonitor.arrived();
+                Dn dn = msg.getDn();
+                this.eventLanes.dispatchDn(() -> this.handleDnEvent(arrived, dn));
+            }
         });
-        this.api.voice().addErrorEventListener(msg -> {
-            this.write("EventError: " + msg.getMessage() + " - code [" + msg.getCode() + "]");
+        api.voice().addErrorEventListener(msg -> {
+            if (api == this.api) {
+                long arrived = this.eventMonitor.arrived();
+                Object message = msg.getMessage();
+                Object code = msg.getCode();
+                this.eventLanes.dispatchError(() -> this.handleErrorEvent(arrived, message, code));
+            }
         });
+
+        return api;
+    }
+
+    private void handleCallEvent(long arrived, Object notificationType, String previousConnId, Call call) {
+        this.eventMonitor.handling();
+        ListenerEvent event = new ListenerEvent();
+        event.begin();
+
+        try {
+            String connId = call.getId();
+            AuditLog.callEvent(notificationType, previousConnId, call);
+            this.callWatcher.onCall(call);
+            this.dashboard.onEvent();
+            if (previousConnId != null) {
+                this.callIndex.rename(previousConnId, call);
+                this.userData.rename(previousConnId, connId);
+            } else {
+                this.callIndex.update(call);
+            }
+
+            String userDataDelta = null;
+            if (call.getState() == CallState.RELEASED) {
+                this.userData.remove(connId);
+            } else {
+                userDataDelta = this.userData.update(connId, call.getUserData());
+            }
+
+            if (previousConnId != null) {
+                this.render("CallStateChanged", connId, "Call [" + previousConnId + "] id changed to ["
+                        + connId);
+            } else {
+                this.render("CallStateChanged", connId, "CallStateChanged [" + notificationType + "]: "
+                        + this.getCallSummary(call, userDataDelta != null ? "userData " + userDataDelta : null));
+            }
+            this.eventMonitor.rendered(arrived);
+
+            if (event.shouldCommit()) {
+                event.command = "CallStateChanged";
+                event.connId = connId;
+                event.commit();
+            }
+        } finally {
+            this.eventMonitor.handled(arrived);
+        }
+    }
+
+    private void handleDnEvent(long arrived, Dn dn) {
+        this.eventMonitor.handling();
+        ListenerEvent event = new ListenerEvent();
+        event.begin();
+
+        try {
+            AuditLog.dnEvent(dn);
+            this.callIndex.updateDn(dn);
+            this.dashboard.onEvent();
+            this.render("DnStateChanged", null, "DnStateChanged: " + this.getDnSummary(dn));
+            this.eventMonitor.rendered(arrived);
+
+            if (event.shouldCommit()) {
+                event.command = "DnStateChanged";
+                event.commit();
+            }
+        } finally {
+            this.eventMonitor.handled(arrived);
+        }
+    }
+
+    private void handleErrorEvent(long arrived, Object message, Object code) {
+        this.eventMonitor.handling();
+        ListenerEvent event = new ListenerEvent();
+        event.begin();
+
+        try {
+            AuditLog.error("EventError", message, code);
+            String error = "EventError: " + message + " - code [" + code + "]";
+            this.dashboard.addError(error);
+            this.render("EventError", null, error);
+            this.eventMonitor.rendered(arrived);
+
+            if (event.shouldCommit()) {
+                event.command = "EventError";
+                event.commit();
+            }
+        } finally {
+            this.eventMonitor.handled(arrived);
+        }
+    }
+
+    private interface VoidRequest {
+        void send() throws WorkspaceApiException;
+    }
+
+    private interface CallRequest {
+        void send(String connId) throws WorkspaceApiException;
+    }
+
+    private interface CallArgRequest<T> {
+        void send(String connId, T arg) throws WorkspaceApiException;
     }
 
     private class Command {
@@ -83,9 +287,34 @@ public class WorkspaceConsole {
     }
 
     private void write(String msg) {
+        // Output written while a command is being dispatched is attributed to that command.
+        CommandEvent command = Thread.currentThread() == this.consoleThread ? this.commandEvent : null;
+        if (command != null) {
+            this.render(command.command, command.connId, msg);
+        } else {
+            this.render(null, null, msg);
+        }
+    }
+
+    private void render(String command, String connId, String msg) {
+        // The dashboard owns the screen while it is shown.
+        if (this.dashboard.isActive()) {
+            return;
+        }
+
+        RenderEvent event = new RenderEvent();
+        event.begin();
+
         String moveBack = "\u001b[50D";
         System.out.print(moveBack);
         System.out.println(msg);
+
+        if (event.shouldCommit()) {
+            event.command = command;
+            event.connId = connId;
+            event.length = msg.length();
+            event.commit();
+        }
     }
 
     private void prompt() {
@@ -99,77 +328,493 @@ public class WorkspaceConsole {
     }
 
     private Command parseInput(String input) {
-        String[] pieces = input.split("\\s+");
-        if (pieces.length == 0) {
+        List<String> tokens = this.tokenizer.tokenize(input);
+        if (tokens.isEmpty()) {
             return null;
         }
 
-        String name = pieces[0].toLowerCase();
-        List args = new ArrayList<String>();
-        if (pieces.length > 1) {
-            for (int i = 1; i < pieces.length; i++) {
-                args.add(pieces[i]);
-            }
-        }
-
-        return new Command(name, args);
+        String name = tokens.get(0).toLowerCase();
+        return new Command(name, tokens.subList(1, tokens.size()));
     }
 
     private void printHelp() {
         this.write("Workspace Api Console commands:");
-        this.write("initialize|init|i");
-        this.write("destroy|logout|l");
-        this.write("activate-channels|ac <agentId> <dn>");
-        this.write("user|u");
-        this.write("configuration|c <type>");
-        this.write("dn");
-        this.write("calls");
-        this.write("ready|r");
-        this.write("not-ready|nr");
-        this.write("dnd-on");
-        this.write("dnd-off");
-        this.write("voice-login");
-        this.write("voice-logout");
-        this.write("set-forward <destination>");
-        this.write("cancel-forward");
-        this.write("make-call|mc <destination>");
-        this.write("answer|a <id>");
-        this.write("hold|h <id>");
-        this.write("retrieve|ret <id>");
-        this.write("release|rel <id>");
-        this.write("clear-call <id>");
-        this.write("redirect <id> <destination>");
-        this.write("initiate-conference|ic <id> <destination>");
-        this.write("complete-conference|cc <id> <parentConnId>");
-        this.write("initiate-transfer|it <id> <destination>");
-        this.write("complete-transfer|ct <id> <parentConnId>");
-        this.write("delete-from-conference|dfc <id> <dnToDrop>");
-        this.write("send-dtmf|dtmf <id> <digits>");
-        this.write("alternate|alt <id> <heldConnId>");
-        this.write("merge <id> <otherConnId>");
-        this.write("reconnect <id> <heldConnId>");
-        this.write("single-step-transfer <id> <destination>");
-        this.write("single-step-conference <id> <destination>");
-        this.write("attach-user-data|aud <id> <key> <value>");
-        this.write("update-user-data|uud <id> <key> <value>");
-        this.write("delete-user-data-pair|dp <id> <key>");
-        this.write("start-recording <id>");
-        this.write("pause-recording <id>");
-        this.write("resume-recording <id>");
-        this.write("stop-recording <id>");
-        this.write("send-user-event <key> <value> <callUuid>");
-        this.write("target-search|ts <searchTerm> <limit>");
-        this.write("clear|cls");
-        this.write("config|conf");
-        this.write("exit|x");
-        this.write("debug|d");
-        this.write("help|?");
+        this.commands.getEntries().forEach(entry -> this.write(entry.getHelp()));
         this.write("");
         this.write("Note: <id> parameter can be omitted for call operations if there is only one active call.");
         this.write("");
     }
 
+    private CommandTable createCommands() {
+        CommandTable commands = new CommandTable();
+        commands.add("initialize", "", inv -> this.init(), "init", "i");
+        commands.add("destroy", "", inv -> {
+            this.write("Cleaning up and logging out...");
+            this.destroy();
+        }, "logout", "l");
+        commands.add("activate-channels", "<agentId> <dn>", inv -> this.activateChannels(inv.getArgs()), "ac");
+        commands.add("iac", "<agentId> <dn>", inv -> {
+            this.init();
+            this.activateChannels(inv.getArgs());
+        });
+        commands.add("user", "", inv -> {
+            if (this.user != null) {
+                this.write("User details:\n" +
+                        "employeeId: " + this.user.getEmployeeId() + "\n" +
+                        "agentId: " + this.user.getAgentId() + "\n" +
+                        "defaultPlace: " + this.user.getDefaultPlace() + "\n" +
+                        "userProperties: " + this.user.getUserProperties() + "\n");
+            } else if (this.snapshot != null) {
+                this.write(this.snapshot.getUserSummary());
+            }
+        }, "u");
+        commands.add("configuration", "<type>", inv -> this.printConfiguration(inv.getArgs()), "c");
+        commands.add("settings", "get <section/key> <string|int|bool> | list <prefix>",
+                inv -> this.printSettings(inv.getArgs()));
+        commands.add("config", "export <dir>", inv -> this.exportConfiguration(inv.getArgs()));
+        commands.add("dn", "", inv -> this.write("Dn: " + this.getDnSummary(this.getApi().voice().getDn())));
+        commands.add("calls", "", inv -> {
+            this.write("Calls:");
+            Collection<Call> calls = this.getApi().voice().getCalls();
+            if (calls.size() > 0) {
+                calls.forEach(c -> this.write(this.getCallSummary(c)));
+                this.write("");
+            } else {
+                this.write("<none>");
+            }
+        });
+        commands.add("ready", "", inv -> {
+            this.write("Sending ready...");
+            this.send("setAgentReady", () -> this.getApi().voice().setAgentReady());
+        }, "r");
+        commands.add("not-ready", "", inv -> {
+            this.write("Sending not-ready...");
+            this.send("setAgentNotReady", () -> this.getApi().voice().setAgentNotReady());
+        }, "nr");
+        commands.add("acw", "", inv ->
+                this.send("setAgentNotReady", () -> this.getApi().voice().setAgentNotReady("AfterCallWork", null)));
+        commands.add("dnd-on", "", inv -> {
+            this.write("Sending dnd-on...");
+            this.send("dndOn", () -> this.getApi().voice().dndOn());
+        });
+        commands.add("dnd-off", "", inv -> {
+            this.write("Sending dnd-off...");
+            this.send("dndOff", () -> this.getApi().voice().dndOff());
+        });
+        commands.add("voice-login", "", inv -> {
+            this.write("Sending voice login...");
+            this.send("login", () -> this.getApi().voice().login());
+        });
+        commands.add("voice-logout", "", inv -> {
+            this.write("Sending voice logout...");
+            this.send("logout", () -> this.getApi().voice().logout());
+        });
+        commands.add("set-forward", "<destination>", 1, this::bindArgs, inv -> {
+            this.write("Sending set-forward with destination [" + inv.get(0) + "]...");
+            this.send("setForward", () -> this.getApi().voice().setForward(inv.get(0)));
+        });
+        commands.add("cancel-forward", "", inv -> {
+            this.write("Sending cancel-forward...");
+            this.send("cancelForward", () -> this.getApi().voice().cancelForward());
+        });
+        commands.add("make-call", "<destination>", inv -> this.makeCall(inv.getArgs()), "mc");
+        this.addCallCommand(commands, "answer", "answerCall", id -> this.getApi().voice().answerCall(id), "a");
+        this.addCallCommand(commands, "hold", "holdCall", id -> this.getApi().voice().holdCall(id), "h");
+        this.addCallCommand(commands, "retrieve", "retrieveCall", id -> this.getApi().voice().retrieveCall(id), "ret");
+        this.addCallCommand(commands, "release", "releaseCall", id -> this.getApi().voice().releaseCall(id), "rel");
+        this.addCallCommand(commands, "clear-call", "clearCall", id -> this.getApi().voice().clearCall(id));
+        this.addCallCommand(commands, "redirect", "destination", "redirectCall",
+                (id, arg) -> this.getApi().voice().redirectCall(id, arg));
+        this.addCallCommand(commands, "initiate-conference", "destination", "initiateConference",
+                (id, arg) -> this.getApi().voice().initiateConference(id, arg), "ic");
+        this.addParentCommand(commands, "complete-conference", "completeConference",
+                (id, arg) -> this.getApi().voice().completeConference(id, arg), "cc");
+        this.addCallCommand(commands, "initiate-transfer", "destination", "initiateTransfer",
+                (id, arg) -> this.getApi().voice().initiateTransfer(id, arg), "it");
+        this.addParentCommand(commands, "complete-transfer", "completeTransfer",
+                (id, arg) -> this.getApi().voice().completeTransfer(id, arg), "ct");
+        commands.add("xfer", "<id> <destination>", 1, this::bindCallAndArg,
+                inv -> this.consult(inv.getId(), inv.get(0), false));
+        commands.add("conf", "<id> <destination>", 1, this::bindCallAndArg,
+                inv -> this.consult(inv.getId(), inv.get(0), true));
+        this.addCallCommand(commands, "delete-from-conference", "dnToDrop", "deleteFromConference",
+                (id, arg) -> this.getApi().voice().deleteFromConference(id, arg), "dfc");
+        this.addCallCommand(commands, "send-dtmf", "digits", "sendDTMF",
+                (id, arg) -> this.getApi().voice().sendDTMF(id, arg), "dtmf");
+        commands.add("alternate", "<id> <heldConnId>", 2, this::bindArgs, inv -> {
+            this.write("Sending alternate for call [" + inv.get(0) + "] and heldConnId [" + inv.get(1) + "]...");
+            this.send("alternateCalls", inv.get(0), inv.get(1), this.getApi().voice()::alternateCalls);
+        }, "alt");
+        commands.add("merge", "<id> <otherConnId>", 2, this::bindArgs, inv -> {
+            this.write("Sending merge for call [" + inv.get(0) + "] and otherConnId [" + inv.get(1) + "]...");
+            this.send("mergeCalls", inv.get(0), inv.get(1), this.getApi().voice()::mergeCalls);
+        });
+        commands.add("reconnect", "<id> <heldConnId>", 2, this::bindArgs, inv -> {
+            this.write("Sending reconnect for call [" + inv.get(0) + "] and heldConnId [" + inv.get(1) + "]...");
+            this.send("reconnectCall", inv.get(0), inv.get(1), this.getApi().voice()::reconnectCall);
+        });
+        this.addCallCommand(commands, "single-step-transfer", "destination", "singleStepTransfer",
+                (id, arg) -> this.getApi().voice().singleStepTransfer(id, arg), "sst");
+        this.addCallCommand(commands, "single-step-conference", "destination", "singleStepConference",
+                (id, arg) -> this.getApi().voice().singleStepConference(id, arg), "ssc");
+        commands.add("attach-user-data", "<id> <key> <value> | <id> key=value...", 2, this::bindUserData, inv -> {
+            this.write("Sending attach-user-data for call [" + inv.getId()
+                    + "] and data " + inv.getArgs() + "...");
+            this.send("attachUserData", inv.getId(), this.toUserData(inv.getArgs()), this.getApi().voice()::attachUserData);
+        }, "aud");
+        commands.add("update-user-data", "<id> <key> <value> | <id> key=value...", 2, this::bindUserData, inv -> {
+            this.write("Sending update-user-data for call [" + inv.getId()
+                    + "] and data " + inv.getArgs() + "...");
+            this.send("updateUserData", inv.getId(), this.toUserData(inv.getArgs()), this.getApi().voice()::updateUserData);
+        }, "uud");
+        this.addCallCommand(commands, "delete-user-data-pair", "key", "deleteUserDataPair",
+                (id, arg) -> this.getApi().voice().deleteUserDataPair(id, arg), "dp");
+        commands.add("userdata", "<id>", 0, this::bindCall, inv -> {
+            String data = this.userData.describe(inv.getId());
+            if (data == null) {
+                Call call = this.getApi().voice().getCalls().stream()
+                        .filter(c -> c.getId().equals(inv.getId())).findFirst().orElse(null);
+                if (call == null) {
+                    this.write("Call [" + inv.getId() + "] not found.");
+                    return;
+                }
+                this.userData.update(call.getId(), call.getUserData());
+                data = this.userData.describe(call.getId());
+            }
+            this.write("userData for call [" + inv.getId() + "]:\n" + data);
+        }, "ud");
+        this.addCallCommand(commands, "start-recording", "startRecording", id -> this.getApi().voice().startRecording(id));
+        this.addCallCommand(commands, "pause-recording", "pauseRecording", id -> this.getApi().voice().pauseRecording(id));
+        this.addCallCommand(commands, "resume-recording", "resumeRecording", id -> this.getApi().voice().resumeRecording(id));
+        this.addCallCommand(commands, "stop-recording", "stopRecording", id -> this.getApi().voice().stopRecording(id));
+        commands.add("send-user-event", "<key> <value> <callUuid>", 3, this::bindArgs, inv -> {
+            if (this.options.getUserEventWindowMillis() > 0) {
+                this.userEvents.queue(this.getApi(), inv.get(2), inv.get(0), inv.get(1));
+                return;
+            }
+
+            this.write("Sending send-user-event with data [" + inv.get(0) + "=" + inv.get(1)
+                    + "] and callUuid [" + inv.get(2) + "]...");
+
+            KeyValueCollection userData = new KeyValueCollection();
+            userData.addString(inv.get(0), inv.get(1));
+            this.send("sendUserEvent", () -> this.getApi().voice().sendUserEvent(userData, inv.get(2)));
+        });
+        commands.add("flush", "", inv -> {
+            this.write("Sent [" + this.userEvents.flush() + "] user event requests.");
+            this.write(this.userEvents.getSummary());
+        });
+        commands.add("target-search", "<searchTerm>", 1, this::bindArgs, inv -> {
+            SearchResult<Target> result = this.execute("search", null, () -> this.getApi().targets().search(inv.get(0)));
+            String resultMsg = "Search results:\n";
+            if (result.getTargets() != null && !result.getTargets().isEmpty()) {
+                for (Target target : result.getTargets()) {
+                    resultMsg += "    " + target + "\n";
+                }
+                resultMsg += "Total matches: " + result.getTotal();
+            } else {
+                resultMsg += "<none>\n";
+            }
+
+            this.write(resultMsg);
+        }, "ts");
+        commands.add("ts-bulk", "<file> <output.csv|output.jsonl> <concurrency>", 2, this::bindArgs, inv -> {
+            int concurrency = inv.getArgs().size() > 2 ? Integer.parseInt(inv.get(2)) : this.options.getBulkConcurrency();
+            BulkTargetSearch bulk = new BulkTargetSearch(
+                    term -> this.execute("search", null, () -> this.getApi().targets().search(term)),
+                    concurrency, this::write);
+            this.write(bulk.run(Paths.get(inv.get(0)), Paths.get(inv.get(1))));
+        });
+        commands.add("clear", "", inv -> System.out.print("\u001b[2J\u001b[H"), "cls");
+        commands.add("dashboard", "", inv -> {
+            this.dashboard.start();
+            this.input.nextLine();
+            this.dashboard.stop();
+        }, "db");
+        commands.add("console-config", "", inv -> this.write("Configuration:\n"
+                + "apiKey: " + this.options.getApiKey() + "\n"
+                + "baseUrl: " + this.options.getBaseUrl() + "\n"
+                + "clientId: " + this.options.getClientId() + "\n"
+                + "username: " + this.options.getUsername() + "\n"
+                + "password: " + this.options.getPassword() + "\n"
+                + "debugEnabled: " + this.options.isDebugEnabled() + "\n"
+                + "autoLogin: " + this.options.isAutoLogin() + "\n"
+                + "defaultAgentId: " + this.options.getDefaultAgentId() + "\n"
+                + "defaultDn: " + this.options.getDefaultDn() + "\n"
+                + "defaultDestination: " + this.options.getDefaultDestination() + "\n"
+                ));
+        commands.add("exit", "", inv -> {
+            this.write("Cleaning up and exiting...");
+            this.running = false;
+            this.stopScenario();
+            this.userEvents.stop();
+            this.saveSnapshot();
+            if (this.snapshotWriter != null) {
+                this.snapshotWriter.shutdownNow();
+            }
+            try {
+                if (this.sessionPool != null) {
+                    this.sessionPool.stop();
+                }
+                this.destroy();
+            } finally {
+                this.eventLanes.stop(1000);
+                this.eventMonitor.stop();
+            }
+        }, "x");
+        commands.add("debug", "", inv -> {
+            //CM: TODO - change slf4j?
+        }, "d");
+        commands.add("profile", "start|stop <file>", inv -> this.profile(inv.getArgs()));
+        commands.add("startup", "", inv -> this.write(this.startupTimer.getSummary()));
+        commands.add("policy", "", inv -> this.write(this.getPolicy(this.getApi()).getSummary()));
+        commands.add("health", "", inv -> {
+            this.write(this.eventMonitor.getSummary());
+            this.write(this.eventLanes.getSummary());
+        });
+        commands.add("mem", "", inv -> this.write(this.getMemorySummary()));
+        commands.add("commands", "", inv -> this.write(this.commands.getSummary()));
+        commands.add("reconcile", "", inv -> {
+            int drift = this.reconciler.reconcile();
+            this.write(drift < 0 ? "Events are still being handled, try again." : "Reconciled, [" + drift + "] discrepancies found.");
+            this.write(this.reconciler.getSummary());
+        });
+        commands.add("scenario", "run <file> | stop | status", inv -> this.scenario(inv.getArgs()));
+        commands.add("switch", "<agent>", inv -> this.switchSession(inv.getArgs()));
+        commands.add("pool", "", inv ->
+                this.write(this.sessionPool != null ? this.sessionPool.getSummary() : "No session pool."));
+        commands.add("help", "", inv -> this.printHelp(), "?");
+        return commands;
+    }
+
+    private void addCallCommand(CommandTable commands, String name, String operation, CallRequest request,
+            String... aliases) {
+        commands.add(name, "<id>", 0, this::bindCall, inv -> {
+            this.write("Sending " + name + " for call [" + inv.getId() + "]...");
+            this.send(operation, inv.getId(), request);
+        }, aliases);
+    }
+
+    private void addCallCommand(CommandTable commands, String name, String argName, String operation,
+            CallArgRequest<String> request, String... aliases) {
+        commands.add(name, "<id> <" + argName + ">", 1, this::bindCallAndArg, inv -> {
+            this.write("Sending " + name + " for call [" + inv.getId()
+                    + "] and " + argName + " [" + inv.get(0) + "]...");
+            this.send(operation, inv.getId(), inv.get(0), request);
+        }, aliases);
+    }
+
+    private void addParentCommand(CommandTable commands, String name, String operation,
+            CallArgRequest<String> request, String... aliases) {
+        commands.add(name, "<id> <parentConnId>", 0, this::bindCallAndParent, inv -> {
+            this.write("Sending " + name + " for call [" + inv.getId()
+                    + "] and parentConnId [" + inv.get(0) + "]...");
+            this.send(operation, inv.getId(), inv.get(0), request);
+        }, aliases);
+    }
+
+    private CommandTable.Invocation bindArgs(List<String> args) {
+        return new CommandTable.Invocation(null, args);
+    }
+
+    // <id> may be omitted when there is only one call.
+    private CommandTable.Invocation bindCall(List<String> args) {
+        String id = this.getCallId(args);
+        return id != null ? new CommandTable.Invocation(id, Collections.emptyList()) : null;
+    }
+
+    // <id> <arg>, or just <arg> when there is only one call.
+    private CommandTable.Invocation bindCallAndArg(List<String> args) {
+        if (args.size() > 2) {
+            return null;
+        }
+        String id = args.size() > 1 ? args.get(0) : this.getCallId(null);
+        return id != null ? new CommandTable.Invocation(id, args.subList(args.size() - 1, args.size())) : null;
+    }
+
+    // <id> <parentConnId>, or nothing while a single consult call is in progress.
+    private CommandTable.Invocation bindCallAndParent(List<String> args) {
+        CompleteParams params = this.getCallIdAndParent(args);
+        return params != null
+                ? new CommandTable.Invocation(params.getConnId(), Collections.singletonList(params.getParentConnId()))
+                : null;
+    }
+
+    // <id> followed by either one key and value or any number of key=value pairs, always as key=value.
+    private CommandTable.Invocation bindUserData(List<String> args) {
+        List<String> pairs = new ArrayList<>();
+        if (Tokenizer.pairSeparator(args.get(1)) < 0) {
+            if (args.size() != 3) {
+                return null;
+            }
+            pairs.add(args.get(1) + "=" + args.get(2));
+        } else {
+            for (String pair : args.subList(1, args.size())) {
+                if (Tokenizer.pairSeparator(pair) < 0) {
+                    return null;
+                }
+                pairs.add(pair);
+            }
+        }
+        return new CommandTable.Invocation(args.get(0), pairs);
+    }
+
+    private KeyValueCollection toUserData(List<String> pairs) {
+        KeyValueCollection userData = new KeyValueCollection();
+        for (String pair : pairs) {
+            int separator = Tokenizer.pairSeparator(pair);
+            userData.addString(pair.substring(0, separator), pair.substring(separator + 1));
+        }
+        return userData;
+    }
+
+    private String getMemorySummary() {
+        MemoryEstimator estimator = new MemoryEstimator();
+        this.callIndex.estimate(estimator);
+        long callBytes = estimator.getBytes();
+        // Strings shared with the call index are only counted once, under the call index.
+        this.userData.estimate(estimator);
+        long userDataBytes = estimator.getBytes() - callBytes;
+
+        int tracked = this.callIndex.size();
+        Runtime runtime = Runtime.getRuntime();
+        return "Memory:\n"
+                + "tracked calls [" + tracked + "] call index [" + callBytes + " B] userData [" + userDataBytes
+                + " B] per call [" + (tracked > 0 ? (callBytes + userDataBytes) / tracked : 0) + " B]\n"
+                + this.userData.getSummary() + "\n"
+                + Interner.getSummary() + "\n"
+                + "heap used [" + (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024) + " MB] of ["
+                + runtime.maxMemory() / (1024 * 1024) + " MB]";
+    }
+
+    private void dispatch(Command cmd) {
+        CommandTable.Entry entry = this.commands.get(cmd.getName());
+        if (entry == null) {
+            if (!cmd.getName().isEmpty()) {
+                this.write("Unknown command [" + cmd.getName() + "], type help for the list of commands.");
+            }
+            return;
+        }
+
+        this.beginCommand(cmd);
+        boolean failed = true;
+        try {
+            if (!entry.invoke(cmd.getArgs())) {
+                this.write("Usage: " + entry.getUsage());
+            }
+            failed = false;
+        } catch (Exception e) {
+            // A failed command is reported but doesn't end the session.
+            AuditLog.error(cmd.getName(), e);
+            this.write("Exception!" + e.toString());
+            e.printStackTrace();
+        } finally {
+            this.endCommand(failed);
+        }
+    }
+
+    private <T> T execute(String operation, String connId, ApiRequest<T> request) throws WorkspaceApiException {
+        return this.execute(this.getApi(), operation, connId, request);
+    }
+
+    private <T> T execute(WorkspaceApi api, String operation, String connId, ApiRequest<T> request)
+            throws WorkspaceApiException {
+        return this.getPolicy(api).execute(operation, RETRY_SAFE.contains(operation),
+                () -> this.executeDirect(operation, connId, request));
+    }
+
+    private RequestPolicy getPolicy(WorkspaceApi api) {
+        return this.policies.computeIfAbsent(api, a -> new RequestPolicy(this.options.getRateLimit(),
+                this.options.getRateBurst(), this.options.getMaxRetries()));
+    }
+
+    private <T> T executeDirect(String operation, String connId, ApiRequest<T> request) throws WorkspaceApiException {
+        CommandEvent command = Thread.currentThread() == this.consoleThread ? this.commandEvent : null;
+        if (command != null && connId != null) {
+            command.connId = connId;
+        }
+
+        HttpEvent event = new HttpEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = request.send();
+            failed = false;
+            return result;
+        } finally {
+            AuditLog.request(operation, connId, failed, System.nanoTime() - start);
+            if (event.shouldCommit()) {
+                event.command = command != null ? command.command : null;
+                event.connId = connId;
+                event.operation = operation;
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    private void send(String operation, VoidRequest request) throws WorkspaceApiException {
+        this.execute(operation, null, () -> {
+            request.send();
+            return null;
+        });
+    }
+
+    private void send(String operation, String connId, CallRequest request) throws WorkspaceApiException {
+        this.execute(operation, connId, () -> {
+            request.send(connId);
+            return null;
+        });
+    }
+
+    private <T> void send(String operation, String connId, T arg, CallArgRequest<T> request) throws WorkspaceApiException {
+        this.execute(operation, connId, () -> {
+            request.send(connId, arg);
+            return null;
+        });
+    }
+
+    private void beginCommand(Command cmd) {
+        AuditLog.command(cmd.getName(), cmd.getArgs());
+        this.commandEvent = new CommandEvent();
+        this.commandEvent.command = cmd.getName();
+        this.commandEvent.begin();
+    }
+
+    private void endCommand(boolean failed) {
+        CommandEvent event = this.commandEvent;
+        this.commandEvent = null;
+        if (event != null && event.shouldCommit()) {
+            event.failed = failed;
+            event.commit();
+        }
+    }
+
+    private void profile(List<String> args) throws WorkspaceConsoleException {
+        String action = args.size() > 0 ? args.get(0) : "";
+        String fileName = args.size() > 1 ? args.get(1) : null;
+
+        switch (action) {
+            case "start":
+                this.profiler.start(fileName);
+                this.write("Profiling started" + (fileName != null ? " [" + fileName + "]" : "") + ".");
+                break;
+
+            case "stop":
+                this.write("Profiling stopped, recording written to [" + this.profiler.stop(fileName) + "].");
+                break;
+
+            default:
+                this.write("Usage: profile start|stop <file>");
+        }
+    }
+
     private String getCallSummary(Call call) {
+        return this.getCallSummary(call, "userData " + call.getUserData());
+    }
+
+    private String getCallSummary(Call call, String userData) {
         String summary = call.getId() + " state [" + call.getState()
                 + "] type [" + call.getCallType() + "]";
         if (call.getParentConnId() != null) {
@@ -188,7 +833,10 @@ public class WorkspaceConsole {
             }
 
             summary += " participants [" + participantSummary + "]";
-            summary += " userData " + call.getUserData();
+        }
+
+        if (userData != null) {
+            summary += " " + userData;
         }
 
         return summary;
@@ -212,6 +860,11 @@ public class WorkspaceConsole {
         return msg;
     }
 
+    private String getDashboardDnSummary() {
+        Dn dn = this.api != null ? this.api.voice().getDn() : null;
+        return dn != null ? this.getDnSummary(dn) : "<none>";
+    }
+
     private String getCallId(List<String> args) {
         // If we get an id as an argument use that
         if (args != null && args.size() == 1) {
@@ -219,11 +872,11 @@ public class WorkspaceConsole {
         }
 
         // Otherwise if there is only one call use that id.
-        Collection<Call> calls = this.api.voice().getCalls();
+        Collection<TrackedCall> calls = this.callIndex.getCalls();
         if (calls.size() != 1) {
             return null;
         } else {
-            return calls.stream().findFirst().get().getId();
+            return calls.stream().findFirst().get().getConnId();
         }
     }
 
@@ -235,55 +888,74 @@ public class WorkspaceConsole {
         // If ids were not provided, see if there is only one
         // possibility.
         CompleteParams params = null;
-        if (this.api.voice().getCalls().size() == 2) {
-            Call call = this.api.voice().getCalls().stream()
+        if (this.callIndex.size() == 2) {
+            TrackedCall call = this.callIndex.getCalls().stream()
                   .filter(c -> c.getParentConnId() != null)
-                  .findFirst().get();
+                  .findFirst().orElse(null);
 
             if (call != null) {
-                params = new CompleteParams(call.getId(), call.getParentConnId());
+                params = new CompleteParams(call.getConnId(), call.getParentConnId());
             }
         }
 
         return params;
     }
 
+    private synchronized AuthenticationApi getAuthApi() {
+        if (this.authApi == null) {
+            String baseUrl = this.options.getAuthBaseUrl() != null ?
+                    this.options.getAuthBaseUrl() : this.options.getBaseUrl();
+            ApiClient authClient = new ApiClient();
+            authClient.setBasePath(baseUrl + "/auth/v3");
+            authClient.addDefaultHeader("x-api-key", this.options.getApiKey());
+            OkHttpClient httpClient = authClient.getHttpClient();
+            httpClient.setFollowRedirects(false);
+            httpClient.setFollowSslRedirects(false);
+
+            this.authApi = new AuthenticationApi(authClient);
+        }
+
+        return this.authApi;
+    }
+
     private String getAuthToken() throws WorkspaceApiException {
         this.write("Getting auth token...");
-        String baseUrl = this.options.getAuthBaseUrl() != null ?
-                this.options.getAuthBaseUrl() : this.options.getBaseUrl();
-        ApiClient authClient = new ApiClient();
-        authClient.setBasePath(baseUrl + "/auth/v3");
-        authClient.addDefaultHeader("x-api-key", this.options.getApiKey());
-        OkHttpClient httpClient = authClient.getHttpClient();
-        httpClient.setFollowRedirects(false);
-        httpClient.setFollowSslRedirects(false);
+        return this.getAuthToken(this.options.getUsername(), this.options.getPassword());
+    }
 
+    private String getAuthToken(String username, String password) throws WorkspaceApiException {
         byte[] bytes = (this.options.getClientId() + ":" + this.options.getClientSecret()).getBytes();
         byte[] encoded = Base64.getEncoder().encode(bytes);
         String authorization = "Basic " + new String(encoded);
 
-        AuthenticationApi authApi = new AuthenticationApi(authClient);
+        AuthenticationApi authApi = this.getAuthApi();
 
-        try {
-            DefaultOAuth2AccessToken response = authApi.retrieveToken(
-                    "password", authorization, "application/json", "*",
-                    this.options.getClientId(), null, this.options.getUsername(), this.options.getPassword());
+        DefaultOAuth2AccessToken response = this.executeDirect("retrieveToken", null, () -> {
+            try {
+                return authApi.retrieveToken(
+                        "password", authorization, "application/json", "*",
+                        this.options.getClientId(), null, username, password);
+            } catch (ApiException e) {
+                throw new WorkspaceApiException("Failed to get auth token", e);
+            }
+        });
 
-            return response.getAccessToken();
-        } catch (ApiException e) {
-            throw new WorkspaceApiException("Failed to get auth token", e);
-        }
+        return response.getAccessToken();
     }
 
     private void init() throws WorkspaceConsoleException, WorkspaceApiException, ExecutionException, InterruptedException {
+        this.init(this.getAuthToken());
+    }
 
-        String token = this.getAuthToken();
+    private void init(String token) throws WorkspaceConsoleException, WorkspaceApiException, ExecutionException, InterruptedException {
         if (token == null) {
             throw new WorkspaceConsoleException("Failed to get auth token.");
         }
         this.write("Initializing API...");
-        this.user = this.api.initialize(token);
+        this.user = this.getApi().initialize(token);
+        this.settingsIndex = null;
+        this.reconciler.start();
+        this.refreshSnapshot();
         this.write("Initialization complete.");
     }
 
@@ -298,21 +970,323 @@ public class WorkspaceConsole {
         String dn = hasArgs ? args.get(1) : this.options.getDefaultDn();
 
         this.write("Sending activate-channels with agentId [" + agentId + "] and dn " + dn + "]...");
-        this.api.activateChannels(agentId, dn, null, null, null);
+        this.executeDirect("activateChannels", null, () -> {
+            this.getApi().activateChannels(agentId, dn, null, null, null);
+            return null;
+        });
+    }
+
+    private void startAutoLogin() {
+        if (!this.options.isAutoLogin()) {
+            return;
+        }
+
+        this.write("autoLogin is true...");
+        this.autoLogin = CompletableFuture.runAsync(this::doAutoLogin);
     }
 
     private void doAutoLogin() {
         try {
-            if (this.options.isAutoLogin()) {
-                this.write("autoLogin is true...");
-                this.init();
-                this.activateChannels(null);
-            }
+            // Retrieve the token while the API client is built and warmed up.
+            CompletableFuture<String> token = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return this.getAuthToken();
+                } catch (WorkspaceApiException e) {
+                    throw new CompletionException(e);
+                }
+            });
+            this.getApi();
+
+            this.init(token.join());
+            this.activateChannels(null);
+        } catch (CompletionException e) {
+            this.write("autoLogin failed!" + e.getCause());
         } catch (WorkspaceConsoleException|WorkspaceApiException|ExecutionException|InterruptedException e) {
             this.write("autoLogin failed!" + e);
+        } finally {
+            this.startupTimer.markReady();
+        }
+    }
+
+    private void awaitAutoLogin() {
+        if (this.autoLogin != null) {
+            this.autoLogin.join();
+            this.autoLogin = null;
+        }
+
+        this.startupTimer.markReady();
+    }
+
+    private void destroy() throws WorkspaceApiException {
+        // Queued user events can't be sent once their session is gone.
+        this.userEvents.flush();
+        this.reconciler.stop();
+        // Without a user the snapshot writer has nothing to save, so the logged out state isn't written.
+        synchronized (this.snapshotLock) {
+            this.user = null;
+            this.snapshot = null;
+        }
+        this.callIndex.clear();
+        this.userData.clear();
+        if (this.api != null) {
+            if (this.sessionPool != null) {
+                this.sessionPool.remove(this.api);
+            }
+
+            this.executeDirect("destroy", null, () -> {
+                this.api.destroy();
+                return null;
+            });
+        }
+    }
+
+    private void loadSnapshot() {
+        if (this.options.getSnapshot() == null || !Files.exists(Paths.get(this.options.getSnapshot()))) {
+            return;
+        }
+
+        try {
+            SessionSnapshot snapshot = SessionSnapshot.read(Paths.get(this.options.getSnapshot()));
+            if (!snapshot.isFor(this.options.getUsername(), this.options.getBaseUrl())) {
+                this.write("Ignoring session snapshot for a different user.");
+                return;
+            }
+
+            snapshot.getCalls().forEach(this.callIndex::put);
+            this.snapshot = snapshot;
+            this.write("Loaded session snapshot from " + new Date(snapshot.getSavedAt())
+                    + " with [" + snapshot.getCalls().size() + "] calls.");
+        } catch (IOException | RuntimeException e) {
+            this.write("Failed to load session snapshot: " + e);
+        }
+    }
+
+    private SessionSnapshot captureSnapshot() {
+        WorkspaceApi api = this.getApi();
+        SessionSnapshot snapshot = new SessionSnapshot(this.options.getUsername(), this.options.getBaseUrl());
+        snapshot.setUser(this.user.getEmployeeId(), this.user.getAgentId(), this.user.getDefaultPlace(),
+                this.user.getUserProperties());
+
+        List<String> agentGroups = new ArrayList<>();
+        if (api.getAgentGroups() != null) {
+            for (AgentGroup group : api.getAgentGroups()) {
+                agentGroups.add("name [" + group.getName() + "] userProperties " + group.getUserProperties() + "]");
+            }
+        }
+        snapshot.setConfiguration(this.toStrings(api.getActionCodes()), agentGroups,
+                this.toStrings(api.getBusinessAttributes()), this.toStrings(api.getTransactions()), api.getSettings());
+        snapshot.setCalls(this.callIndex.getCalls());
+
+        return snapshot;
+    }
+
+    private List<String> toStrings(Collection<?> items) {
+        List<String> strings = new ArrayList<>();
+        if (items != null) {
+            items.forEach(item -> strings.add(String.valueOf(item)));
+        }
+
+        return strings;
+    }
+
+    private void refreshSnapshot() {
+        if (this.options.getSnapshot() == null) {
+            return;
+        }
+
+        SessionSnapshot fresh = this.captureSnapshot();
+        if (this.snapshot != null) {
+            List<String> changes = this.snapshot.diff(fresh);
+            this.write(changes.isEmpty() ? "Session snapshot is up to date."
+                    : "Session snapshot refreshed, changed: " + changes);
+        }
+        this.snapshot = fresh;
+
+        synchronized (this) {
+            if (this.snapshotWriter == null) {
+                this.snapshotWriter = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread thread = new Thread(r, "snapshot-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                long interval = this.options.getSnapshotIntervalSeconds();
+                this.snapshotWriter.scheduleWithFixedDelay(this::saveSnapshot, interval, interval, TimeUnit.SECONDS);
+            }
+        }
+        this.saveSnapshot();
+    }
+
+    private void saveSnapshot() {
+        if (this.options.getSnapshot() == null) {
+            return;
+        }
+
+        synchronized (this.snapshotLock) {
+            // The snapshot belongs to --username, so nothing is saved once a pooled agent's session is active,
+            // or after logout.
+            if (this.switched || this.user == null) {
+                return;
+            }
+
+            try {
+                SessionSnapshot snapshot = this.captureSnapshot();
+                snapshot.write(Paths.get(this.options.getSnapshot()));
+                this.snapshot = snapshot;
+            } catch (IOException | RuntimeException e) {
+                this.write("Failed to save session snapshot: " + e);
+            }
+        }
+    }
+
+    private void startSessionPool() {
+        if (this.options.getSessionPool() == null) {
+            return;
+        }
+
+        try {
+            this.sessionPool = new SessionPool(SessionPool.loadAgents(this.options.getSessionPool()),
+                    new SessionPool.Factory() {
+                        @Override
+                        public Session create(SessionPool.Agent agent) throws Exception {
+                            return createSession(agent);
+                        }
+
+                        @Override
+                        public void destroy(Session session) throws Exception {
+                            policies.remove(session.getApi());
+                            session.getApi().destroy();
+                        }
+                    }, this::write,
+                    this.options.getPoolSize(),
+                    TimeUnit.MINUTES.toMillis(this.options.getPoolIdleMinutes()),
+                    TimeUnit.MINUTES.toMillis(this.options.getTokenRefreshMinutes()));
+            this.sessionPool.start();
+        } catch (WorkspaceConsoleException e) {
+            this.write(e.getMessage());
         }
     }
 
+    private Session createSession(SessionPool.Agent agent)
+            throws WorkspaceApiException, ExecutionException, InterruptedException {
+        String token = this.getAuthToken(agent.getUsername(), agent.getPassword());
+        WorkspaceApi api = this.createApi();
+        User user = api.initialize(token);
+        this.executeDirect("activateChannels", null, () -> {
+            api.activateChannels(agent.getAgentId(), agent.getDn(), null, null, null);
+            return null;
+        });
+
+        return new Session(agent.getName(), api, user);
+    }
+
+    private void scenario(List<String> args) throws WorkspaceApiException, WorkspaceConsoleException {
+        String action = args.size() > 0 ? args.get(0) : "";
+        ScenarioEngine engine = this.scenario;
+        switch (action) {
+            case "run":
+                if (args.size() < 2) {
+                    this.write("Usage: scenario run <file>");
+                    return;
+                }
+                if (engine != null && !engine.isStopped()) {
+                    this.write("A scenario is already running, stop it first.");
+                    return;
+                }
+
+                Scenario loaded = Scenario.load(Paths.get(args.get(1)));
+                // Flows run on every pooled agent, or on the current session when there is no pool.
+                List<Session> sessions = this.sessionPool != null ? this.sessionPool.pinAll()
+                        : Collections.singletonList(new Session(this.options.getUsername(), this.getApi(), this.user));
+                this.scenario = new ScenarioEngine(loaded, sessions,
+                        (api, operation, connId, request) -> this.execute(api, operation, connId, request),
+                        this::write, this::unpinSessions);
+                this.scenario.start();
+                this.write("Scenario started with [" + loaded.getFlows().size() + "] flows on ["
+                        + sessions.size() + "] sessions at [" + loaded.getRate() + "] flows per second.");
+                break;
+
+            case "stop":
+                if (engine == null || engine.isStopped()) {
+                    this.write("No scenario running.");
+                    return;
+                }
+                this.stopScenario();
+                this.write(engine.getSummary());
+                break;
+
+            case "status":
+                this.write(engine != null ? engine.getSummary() : "No scenario has been run.");
+                break;
+
+            default:
+                this.write("Usage: scenario run <file> | stop | status");
+        }
+    }
+
+    private void stopScenario() {
+        ScenarioEngine engine = this.scenario;
+        if (engine != null && !engine.isStopped()) {
+            engine.stop();
+            this.unpinSessions();
+        }
+    }
+
+    private void unpinSessions() {
+        if (this.sessionPool != null) {
+            this.sessionPool.unpinAll();
+        }
+    }
+
+    private void switchSession(List<String> args) throws WorkspaceConsoleException {
+        if (this.sessionPool == null) {
+            this.write("No session pool, start the console with --sessionPool <file>.");
+            return;
+        }
+
+        if (args.size() < 1) {
+            this.write("Usage: switch <agent>");
+            return;
+        }
+
+        long start = System.nanoTime();
+        WorkspaceApi previous = this.api;
+        Session session = this.sessionPool.acquire(args.get(0));
+        if (session.getApi() == previous) {
+            this.write("Agent [" + session.getName() + "] is already active.");
+            return;
+        }
+
+        this.reconciler.stop();
+        this.userEvents.flush();
+        this.saveSnapshot();
+        synchronized (this.snapshotLock) {
+            this.switched = true;
+        }
+        this.callIndex.clear();
+        this.userData.clear();
+        this.eventLanes.clearRenamed();
+        synchronized (this) {
+            this.api = session.getApi();
+            this.settingsIndex = null;
+        }
+        this.user = session.getUser();
+        this.reconciler.start();
+
+        // A session that did not come from the pool is not needed any more.
+        if (previous != null && !this.sessionPool.contains(previous)) {
+            CompletableFuture.runAsync(() -> {
+                try {
+                    previous.destroy();
+                } catch (Exception e) {
+                    this.write("Failed to destroy previous session: " + e);
+                }
+            });
+        }
+
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        this.write("Switched to agent [" + session.getName() + "] in [" + elapsed + " ms].");
+    }
+
     private void makeCall(List<String> args) throws WorkspaceApiException {
         boolean hasArgs = (args.size() > 0);
         if (!hasArgs && this.options.getDefaultDestination() == null) {
@@ -322,12 +1296,74 @@ public class WorkspaceConsole {
 
         String destination = hasArgs ? args.get(0) : this.options.getDefaultDestination();
         this.write("Sending make-call with destination [" + destination + "]...");
-        this.api.voice().makeCall(destination);
+        this.send("makeCall", () -> this.getApi().voice().makeCall(destination));
+    }
+
+    private void consult(String id, String destination, boolean conference)
+            throws WorkspaceApiException, ExecutionException, InterruptedException {
+        String name = conference ? "conf" : "xfer";
+        long start = System.nanoTime();
+        CompletableFuture<Call> consult = this.callWatcher.await(c -> id.equals(c.getParentConnId())
+                && (c.getState() == CallState.ESTABLISHED || c.getState() == CallState.RELEASED));
+
+        Call consultCall = null;
+        try {
+            if (conference) {
+                this.write("Sending initiate-conference for call [" + id
+                        + "] and destination [" + destination + "]...");
+                this.send("initiateConference", id, destination, this.getApi().voice()::initiateConference);
+            } else {
+                this.write("Sending initiate-transfer for call [" + id
+                        + "] and destination [" + destination + "]...");
+                this.send("initiateTransfer", id, destination, this.getApi().voice()::initiateTransfer);
+            }
+
+            this.callWatcher.check(this.getApi().voice().getCalls());
+            consultCall = consult.get(this.options.getConsultTimeout(), TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            this.write(name + ": consult call to [" + destination + "] not established after ["
+                    + this.options.getConsultTimeout() + "] seconds.");
+        } finally {
+            this.callWatcher.cancel(consult);
+        }
+
+        if (consultCall == null || consultCall.getState() != CallState.ESTABLISHED) {
+            this.rollbackConsult(name, id);
+            return;
+        }
+
+        if (conference) {
+            this.write("Sending complete-conference for call [" + consultCall.getId()
+                    + "] and parentConnId [" + id + "]...");
+            this.send("completeConference", consultCall.getId(), id, this.getApi().voice()::completeConference);
+        } else {
+            this.write("Sending complete-transfer for call [" + consultCall.getId()
+                    + "] and parentConnId [" + id + "]...");
+            this.send("completeTransfer", consultCall.getId(), id, this.getApi().voice()::completeTransfer);
+        }
+
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        this.write(name + " for call [" + id + "] completed in [" + elapsed + " ms].");
+    }
+
+    private void rollbackConsult(String name, String id) throws WorkspaceApiException {
+        Call consultCall = this.getApi().voice().getCalls().stream()
+                .filter(c -> id.equals(c.getParentConnId()) && c.getState() != CallState.RELEASED)
+                .findFirst().orElse(null);
+
+        if (consultCall != null) {
+            this.write(name + ": reconnecting call [" + id + "] and releasing consult call ["
+                    + consultCall.getId() + "]...");
+            this.send("reconnectCall", consultCall.getId(), id, this.getApi().voice()::reconnectCall);
+        } else {
+            this.write(name + ": retrieving call [" + id + "]...");
+            this.send("retrieveCall", id, this.getApi().voice()::retrieveCall);
+        }
     }
 
     private String getBusinessAttributeSummary() {
         String summary = "Business Attributes:\n";
-        Collection<BusinessAttribute> businessAttributes = this.api.getBusinessAttributes();
+        Collection<BusinessAttribute> businessAttributes = this.getApi().getBusinessAttributes();
         if (businessAttributes != null && !businessAttributes.isEmpty()) {
             for (BusinessAttribute businessAttribute : businessAttributes) {
                 summary += businessAttribute + "\n";
@@ -341,7 +1377,7 @@ public class WorkspaceConsole {
 
     private String getActionCodeSummary() {
         String summary = "Action Codes:\n";
-        Collection<ActionCode> actionCodes = this.api.getActionCodes();
+        Collection<ActionCode> actionCodes = this.getApi().getActionCodes();
         if (actionCodes != null && !actionCodes.isEmpty()) {
             for (ActionCode actionCode : actionCodes) {
                 summary += actionCode + "\n";
@@ -354,14 +1390,14 @@ public class WorkspaceConsole {
     }
 
     private String getSettingsSummary() {
-        KeyValueCollection settings = this.api.getSettings();
-        return "Settings:\n" + settings == null ? "<none>" : settings.toString();
+        KeyValueCollection settings = this.getApi().getSettings();
+        return "Settings:\n" + (settings == null ? "<none>" : settings.toString());
     }
 
     private String getTransactionsSummary() {
         String summary = "Transactions:\n";
 
-        Collection<Transaction> txns = this.api.getTransactions();
+        Collection<Transaction> txns = this.getApi().getTransactions();
         if (txns != null && !txns.isEmpty()) {
             for (Transaction txn : txns) {
                 summary += txn + "\n";
@@ -376,7 +1412,7 @@ public class WorkspaceConsole {
     private String getAgentGroupsSummary() {
         String summary = "Agent Groups:\n";
 
-        Collection<AgentGroup> agentGroups = this.api.getAgentGroups();
+        Collection<AgentGroup> agentGroups = this.getApi().getAgentGroups();
         if (agentGroups != null && !agentGroups.isEmpty()) {
             for (AgentGroup group : agentGroups) {
                 summary += "name [" + group.getName() + "] userProperties " + group.getUserProperties() + "]\n";
@@ -388,9 +1424,87 @@ public class WorkspaceConsole {
         return summary;
     }
 
+    private synchronized SettingsIndex getSettingsIndex() {
+        if (this.settingsIndex == null) {
+            this.settingsIndex = new SettingsIndex(this.getApi().getSettings());
+        }
+
+        return this.settingsIndex;
+    }
+
+    private void printSettings(List<String> args) {
+        String action = args.size() > 0 ? args.get(0) : "";
+        String path = args.size() > 1 ? args.get(1) : null;
+        String type = args.size() > 2 ? args.get(2) : "string";
+        SettingsIndex index = this.getSettingsIndex();
+
+        switch (action) {
+            case "get":
+                if (path == null) {
+                    this.write("Usage: settings get <section/key> <string|int|bool>");
+                    break;
+                }
+
+                KeyValuePair pair = index.get(path);
+                if (pair == null) {
+                    this.write(path + ": <none>");
+                } else if (pair.getValueType() == KeyValueType.LIST) {
+                    this.write(path + ": " + SettingsIndex.describe(pair));
+                } else if (type.equals("int")) {
+                    this.write(path + ": " + index.getInt(path));
+                } else if (type.equals("bool")) {
+                    this.write(path + ": " + index.getBoolean(path));
+                } else {
+                    this.write(path + ": " + index.getString(path));
+                }
+                break;
+
+            case "list":
+                StringBuilder sb = new StringBuilder("Settings");
+                sb.append(path != null ? " under [" + path + "]" : "").append(":\n");
+                int count = 0;
+                for (Map.Entry<String, KeyValuePair> entry : index.list(path).entrySet()) {
+                    sb.append(entry.getKey()).append(" = ").append(SettingsIndex.describe(entry.getValue())).append("\n");
+                    count++;
+                }
+                sb.append("[").append(count).append("] of [").append(index.size()).append("] settings");
+                this.write(sb.toString());
+                break;
+
+            default:
+                this.write("Usage: settings get <section/key> <string|int|bool> | settings list <prefix>");
+        }
+    }
+
+    private void exportConfiguration(List<String> args) throws IOException, InterruptedException {
+        if (args.size() < 2 || !args.get(0).equals("export")) {
+            this.write("Usage: config export <dir>");
+            return;
+        }
+
+        WorkspaceApi api = this.getApi();
+        ConfigExporter exporter = new ConfigExporter();
+        exporter.add("action-codes", api.getActionCodes(), ConfigJson::actionCode);
+        exporter.add("agent-groups", api.getAgentGroups(), ConfigJson::agentGroup);
+        exporter.add("business-attributes", api.getBusinessAttributes(), ConfigJson::businessAttribute);
+        exporter.add("transactions", api.getTransactions(), ConfigJson::transaction);
+        exporter.add("settings", this.getSettingsIndex().list(null).entrySet(), e -> "{\"path\":" + Json.string(e.getKey())
+                + ",\"type\":\"" + e.getValue().getValueType() + "\""
+                + (e.getValue().getValueType() == KeyValueType.LIST ? "" : ",\"value\":" + Json.string(SettingsIndex.describe(e.getValue())))
+                + "}");
+
+        this.write(exporter.export(Paths.get(args.get(1))));
+    }
+
     private void printConfiguration(List<String> args) {
         String type = args.size() == 1 ? args.get(0) : "all";
 
+        // Until the API is initialized show what was saved in the snapshot.
+        if (this.user == null && this.snapshot != null) {
+            this.write(this.snapshot.getConfigurationSummary(type));
+            return;
+        }
+
         String msg = "";
         switch (type) {
             case "action-codes":
@@ -429,555 +1543,51 @@ public class WorkspaceConsole {
     }
 
     public void run() {
-        Scanner s = new Scanner(System.in);
+        this.consoleThread = Thread.currentThread();
 
         try {
 
             this.write("Workspace Api Console");
             this.write("");
-            this.doAutoLogin();
+            this.eventMonitor.start();
+            this.loadSnapshot();
+            this.startAutoLogin();
+            this.startSessionPool();
+
+            if (this.options.isBenchmarkStartup()) {
+                // Report the timings without waiting for input.
+                this.startupTimer.markPrompt();
+                try {
+                    this.awaitAutoLogin();
+                    this.write(this.startupTimer.getSummary());
+                    this.destroy();
+                } finally {
+                    // The pool's warm-up threads would otherwise keep sessions alive after the report.
+                    if (this.sessionPool != null) {
+                        this.sessionPool.stop();
+                    }
+                }
+                return;
+            }
 
-            for (;;) {
+            while (this.running) {
                 this.prompt();
-                Command cmd = this.parseInput(s.nextLine());
+                this.startupTimer.markPrompt();
+                if (!this.options.isAutoLogin()) {
+                    this.startupTimer.markReady();
+                }
+                Command cmd = this.parseInput(this.input.nextLine());
                 if (cmd == null) {
                     continue;
                 }
 
-                List<String> args = cmd.getArgs();
-                String id;
-                String destination;
-                String key;
-                String value;
-                CompleteParams params;
-
-                switch(cmd.getName()) {
-
-                    case "acw":
-                        this.api.voice().setAgentNotReady("AfterCallWork", null);
-                        break;
-
-                    case "initialize":
-                    case "init":
-                    case "i":
-                        this.init();
-                        break;
-
-                    case "debug":
-                    case "d":
-                        //CM: TODO - change slf4j?
-                        break;
-
-                    case "dn":
-                        this.write("Dn: " + this.getDnSummary(this.api.voice().getDn()));
-                        break;
-
-                    case "calls":
-                        this.write("Calls:");
-                        Collection<Call> calls = this.api.voice().getCalls();
-                        if (calls.size() > 0) {
-                            calls.forEach(c -> this.write(this.getCallSummary(c)));
-                            this.write("");
-                        } else {
-                            this.write("<none>");
-                        }
-                        break;
-
-                    case "configuration":
-                    case "c":
-                        this.printConfiguration(args);
-                        break;
-
-                    case "activate-channels":
-                    case "ac":
-                        this.activateChannels(args);
-                        break;
-
-                    case "iac":
-                        this.init();
-                        this.activateChannels(args);
-                        break;
-
-                    case "not-ready":
-                    case "nr":
-                        this.write("Sending not-ready...");
-                        this.api.voice().setAgentNotReady();
-                        break;
-
-                    case "ready":
-                    case "r":
-                        this.write("Sending ready...");
-                        this.api.voice().setAgentReady();
-                        break;
-
-                    case "dnd-on":
-                        this.write("Sending dnd-on...");
-                        this.api.voice().dndOn();
-                        break;
-
-                    case "dnd-off":
-                        this.write("Sending dnd-off...");
-                        this.api.voice().dndOff();
-                        break;
-
-                    case "set-forward":
-                        if (args.size() < 1) {
-                            this.write("Usage: set-forward <destination>");
-                        } else {
-                            this.write("Sending set-forward with destination [" + args.get(0) + "]...");
-                            this.api.voice().setForward(args.get(0));
-                        }
-                        break;
-
-                    case "cancel-forward":
-                        this.write("Sending cancel-forward...");
-                        this.api.voice().cancelForward();
-                        break;
-
-                    case "voice-login":
-                        this.write("Sending voice login...");
-                        this.api.voice().login();
-                        break;
-
-                    case "voice-logout":
-                        this.write("Sending voice logout...");
-                        this.api.voice().logout();
-                        break;
-
-                    case "make-call":
-                    case "mc":
-                        this.makeCall(args);
-                        break;
-
-                    case "release":
-                    case "rel":
-                        id = this.getCallId(args);
-                        if (id == null) {
-                            this.write("Usage: release <id>");
-                        } else {
-                            this.write("Sending release for call [" + id + "]...");
-                            this.api.voice().releaseCall(id);
-                        }
-                        break;
-
-                    case "answer":
-                    case "a":
-                        id = this.getCallId(args);
-                        if (id == null) {
-                            this.write("Usage: answer <id>");
-                        } else {
-                            this.write("Sending answer for call [" + id + "]...");
-                            this.api.voice().answerCall(id);
-                        }
-                        break;
-
-                    case "hold":
-                    case "h":
-                        id = this.getCallId(args);
-                        if (id == null) {
-                            this.write("Usage: hold <id>");
-                        } else {
-                            this.write("Sending hold for call [" + id + "]...");
-                            this.api.voice().holdCall(id);
-                        }
-                        break;
-
-                    case "retrieve":
-                    case "ret":
-                        id = this.getCallId(args);
-                        if (id == null) {
-                            this.write("Usage: receive <id>");
-                        } else {
-                            this.write("Sending retrieve for call [" + id + "]...");
-                            this.api.voice().retrieveCall(id);
-                        }
-                        break;
-
-                    case "clear-call":
-                        id = this.getCallId(args);
-                        if (id == null) {
-                            this.write("Usage: clear-call <id>");
-                        } else {
-                            this.write("Sending clear for call [" + id + "]...");
-                            this.api.voice().clearCall(id);
-                        }
-                        break;
-
-                    case "redirect":
-                        if (args.size() < 1) {
-                            this.write("Usage: redirect <id> <destination>");
-                        } else {
-                            // If there is only one argument take it as the destination.
-                            destination = args.get(args.size() - 1);
-                            id = this.getCallId(args.size() == 1 ? null : args);
-                            if (id == null) {
-                                this.write("Usage: redirect <id> <destination>");
-                            } else {
-                                this.write("Sending redirect for call [" + id
-                                        + "] and destination [" + destination + "]...");
-                                this.api.voice().redirectCall(id, destination);
-                            }
-                        }
-                        break;
-
-                    case "initiate-conference":
-                    case "ic":
-                        if (args.size() < 1) {
-                            this.write("Usage: initiate-conference <id> <destination>");
-                        } else {
-                            // If there is only one argument take it as the destination.
-                            destination = args.get(args.size() - 1);
-                            id = this.getCallId(args.size() == 1 ? null : args);
-                            if (id == null) {
-                                this.write("Usage: initiate-conference <id> <destination>");
-                            } else {
-                                this.write("Sending initiate-conference for call [" + id
-                                        + "] and destination [" + destination + "]...");
-                                this.api.voice().initiateConference(id, destination);
-                            }
-                        }
-                        break;
-
-                    case "complete-conference":
-                    case "cc":
-                        params = this.getCallIdAndParent(args);
-                        if (params == null) {
-                            this.write("Usage: complete-conference <id> <parentConnId>");
-                        } else {
-                            this.write("Sending complete-conference for call ["
-                                    + params.getConnId() + "] and parentConnId ["
-                                    + params.getParentConnId() + "]...");
-                            this.api.voice().completeConference(params.getConnId(), params.getParentConnId());
-                        }
-                        break;
-
-                    case "delete-from-conference":
-                    case "dfc":
-                        if (args.size() < 1) {
-                            this.write("Usage: delete-from-conference <id> <dnToDrop>");
-                        } else {
-                            // If there is only one argument take it as the dn to drop.
-                            String dnToDrop = args.get(args.size() - 1);
-                            id = this.getCallId(args.size() == 1 ? null : args);
-                            if (id == null) {
-                                this.write("Usage: delete-from-conference <id> <dnToDrop>");
-                            } else {
-                                this.write("Sending delete-from-conference for call [" + id
-                                        + " and dnToDrop [" + dnToDrop + "]...");
-                                this.api.voice().deleteFromConference(id, dnToDrop);
-                            }
-                        }
-                        break;
-
-
-                    case "initiate-transfer":
-                    case "it":
-                        if (args.size() < 1) {
-                            this.write("Usage: initiate-transfer <id> <destination>");
-                        } else {
-                            // If there is only one argument take it as the destination.
-                            destination = args.get(args.size() - 1);
-                            id = this.getCallId(args.size() == 1 ? null : args);
-                            if (id == null) {
-                                this.write("Usage: initiate-transfer <id> <destination>");
-                            } else {
-                                this.write("Sending initiate-transfer for call [" + id
-                                        + "] and destination [" + destination + "]...");
-                                this.api.voice().initiateTransfer(id, destination);
-                            }
-                        }
-                        break;
-
-                    case "complete-transfer":
-                    case "ct":
-                        params = this.getCallIdAndParent(args);
-                        if (params == null) {
-                            this.write("Usage: complete-transfer <id> <parentConnId>");
-                        } else {
-                            this.write("Sending complete-transfer for call ["
-                                    + params.getConnId() + "] and parentConnId ["
-                                    + params.getParentConnId() + "]...");
-                            this.api.voice().completeTransfer(params.getConnId(), params.getParentConnId());
-                        }
-                        break;
-
-
-                    case "single-step-transfer":
-                    case "sst":
-                        if (args.size() < 1) {
-                            this.write("Usage: single-step-transfer <id> <destination>");
-                        } else {
-                            // If there is only one argument take it as the destination.
-                            destination = args.get(args.size() - 1);
-                            id = this.getCallId(args.size() == 1 ? null : args);
-                            if (id == null) {
-                                this.write("Usage: single-step-transfer <id> <destination>");
-                            } else {
-                                this.write("Sending single-step-transfer for call [" + id
-                                        + "] and destination [" + destination + "]...");
-                                this.api.voice().singleStepTransfer(id, destination);
-                            }
-                        }
-                        break;
-
-                    case "single-step-conference":
-                    case "ssc":
-                        if (args.size() < 1) {
-                            this.write("Usage: single-step-conference <id> <destination>");
-                        } else {
-                            // If there is only one argument take it as the destination.
-                            destination = args.get(args.size() - 1);
-                            id = this.getCallId(args.size() == 1 ? null : args);
-                            if (id == null) {
-                                this.write("Usage: single-step-conference <id> <destination>");
-                            } else {
-                                this.write("Sending single-step-conference for call [" + id
-                                        + "] and destination [" + destination + "]...");
-                                this.api.voice().singleStepConference(id, destination);
-                            }
-                        }
-                        break;
-
-                    case "attach-user-data":
-                    case "aud":
-                        if (args.size() < 3) {
-                            this.write("Usage: attach-user-data <id> <key> <value>");
-                        } else {
-                            id = args.get(0);
-                            key = args.get(1);
-                            value = args.get(2);
-
-                            this.write("Sending attach-user-data for call [" + id
-                                    + "] and data [" + key + "=" + value + "]...");
-
-                            KeyValueCollection userData = new KeyValueCollection();
-                            userData.addString(key, value);
-                            this.api.voice().attachUserData(id, userData);
-                        }
-                        break;
-
-                    case "update-user-data":
-                    case "uud":
-                        if (args.size() < 3) {
-                            this.write("Usage: update-user-data <id> <key> <value>");
-                        } else {
-                            id = args.get(0);
-                            key = args.get(1);
-                            value = args.get(2);
-
-                            this.write("Sending update-user-data for call [" + id
-                                    + "] and data [" + key + "=" + value + "]...");
-
-                            KeyValueCollection userData = new KeyValueCollection();
-                            userData.addString(key, value);
-                            this.api.voice().updateUserData(id, userData);
-                        }
-                        break;
-
-                    case "delete-user-data-pair":
-                    case "dp":
-                        if (args.size() < 1) {
-                            this.write("Usage: delete-user-data-pair <id> <key>");
-                        } else {
-                            // If there is only one argument take it as the destination.
-                            key = args.get(args.size() - 1);
-                            id = this.getCallId(args.size() == 1 ? null : args);
-                            if (id == null) {
-                                this.write("Usage: delete-user-data-pair <id> <key>");
-                            } else {
-                                this.write("Sending delete-user-data-pair for call [" + id
-                                        + " and key [" + key + "]...");
-                                this.api.voice().deleteUserDataPair(id, key);
-                            }
-                        }
-                        break;
-
-                    case "alternate":
-                    case "alt":
-                        if (args.size() < 2) {
-                            this.write("Usage: alternate <id> <heldConnId>");
-                        } else {
-                            this.write("Sending alternate for call ["
-                                    + args.get(0) + "] and heldConnId ["
-                                    + args.get(1) + "]...");
-                            this.api.voice().alternateCalls(args.get(0), args.get(1));
-                        }
-                        break;
-
-                    case "merge":
-                        if (args.size() < 2) {
-                            this.write("Usage: merge <id> <otherConnId>");
-                        } else {
-                            this.write("Sending merge for call ["
-                                    + args.get(0) + "] and otherConnId ["
-                                    + args.get(1) + "]...");
-                            this.api.voice().mergeCalls(args.get(0), args.get(1));
-                        }
-                        break;
-
-                    case "reconnect":
-                        if (args.size() < 2) {
-                            this.write("Usage: reconnect <id> <heldConnId>");
-                        } else {
-                            this.write("Sending reconnect for call ["
-                                    + args.get(0) + "] and heldConnId ["
-                                    + args.get(1) + "]...");
-                            this.api.voice().reconnectCall(args.get(0), args.get(1));
-                        }
-                        break;
-
-                    case "send-dtmf":
-                    case "dtmf":
-                        if (args.size() < 1) {
-                            this.write("Usage: send-dtmf <id> <digits>");
-                        } else {
-                            // If there is only one argument take it as the dtmf digits.
-                            String digits = args.get(args.size() - 1);
-                            id = this.getCallId(args.size() == 1 ? null : args);
-                            if (id == null) {
-                                this.write("Usage: send-dtmf <id> <digits>");
-                            } else {
-                                this.write("Sending send-dtmf for call [" + id
-                                        + " and dtmfDigits [" + digits + "]...");
-                                this.api.voice().sendDTMF(id, digits);
-                            }
-                        }
-                        break;
-
-                    case "start-recording":
-                        id = this.getCallId(args);
-                        if (id == null) {
-                            this.write("Usage: start-recording <id>");
-                        } else {
-                            this.write("Sending start-recording for call [" + id + "]...");
-                            this.api.voice().startRecording(id);
-                        }
-                        break;
-
-                    case "pause-recording":
-                        id = this.getCallId(args);
-                        if (id == null) {
-                            this.write("Usage: pause-recording <id>");
-                        } else {
-                            this.write("Sending pause-recording for call [" + id + "]...");
-                            this.api.voice().pauseRecording(id);
-                        }
-                        break;
-
-                    case "resume-recording":
-                        id = this.getCallId(args);
-                        if (id == null) {
-                            this.write("Usage: resume-recording <id>");
-                        } else {
-                            this.write("Sending resume-recortding for call [" + id + "]...");
-                            this.api.voice().resumeRecording(id);
-                        }
-                        break;
-
-                    case "stop-recording":
-                        id = this.getCallId(args);
-                        if (id == null) {
-                            this.write("Usage: stop-recording <id>");
-                        } else {
-                            this.write("Sending stop-recording for call [" + id + "]...");
-                            this.api.voice().stopRecording(id);
-                        }
-                        break;
-
-                    case "send-user-event":
-                        if (args.size() < 3) {
-                            this.write("Usage: send-user-event <key> <value> <callUuid>");
-                        } else {
-                            // If there are only two arguments take them as the key/value.
-                            key = args.get(0);
-                            value = args.get(1);
-                            String uuid = args.get(2);
-
-                            this.write("Sending send-user-event with data [" + key + "=" + value
-                                    + "] and callUuid [" + uuid + "...");
-
-                            KeyValueCollection userData = new KeyValueCollection();
-                            userData.addString(key, value);
-                            this.api.voice().sendUserEvent(null, uuid);
-                        }
-                        break;
-
-                    case "target-search":
-                    case "ts":
-                        if (args.size() < 1) {
-                            this.write("Usage: target-search <search term>");
-                        } else {
-                            SearchResult<Target> result = this.api.targets().search(args.get(0));
-                            String resultMsg = "Search results:\n";
-                            if (result.getTargets() != null && !result.getTargets().isEmpty()) {
-                                for (Target target : result.getTargets()) {
-                                    resultMsg += "    " + target + "\n";
-                                }
-                                resultMsg += "Total matches: " + result.getTotal();
-                            } else {
-                                resultMsg += "<none>\n";
-                            }
-
-                            this.write(resultMsg);
-                        }
-                        break;
-
-                    case "destroy":
-                    case "logout":
-                        this.write("Cleaning up and logging out...");
-                        this.api.destroy();
-                        break;
-
-                    case "user":
-                    case "u":
-                        if (this.user != null) {
-                            this.write("User details:\n" +
-                                    "employeeId: " + this.user.getEmployeeId() + "\n" +
-                                    "agentId: " + this.user.getAgentId() + "\n" +
-                                    "defaultPlace: " + this.user.getDefaultPlace() + "\n" +
-                                    "userProperties: " + this.user.getUserProperties() + "\n");
-                        }
-                        break;
-
-                    case "console-config":
-                        this.write("Configuration:\n"
-                            + "apiKey: " + this.options.getApiKey() + "\n"
-                            + "baseUrl: " + this.options.getBaseUrl() + "\n"
-                            + "clientId: " + this.options.getClientId() + "\n"
-                            + "username: " + this.options.getUsername() + "\n"
-                            + "password: " + this.options.getPassword() + "\n"
-                            + "debugEnabled: " + this.options.isDebugEnabled() + "\n"
-                            + "autoLogin: " + this.options.isAutoLogin() + "\n"
-                            + "defaultAgentId: " + this.options.getDefaultAgentId() + "\n"
-                            + "defaultDn: " + this.options.getDefaultDn() + "\n"
-                            + "defaultDestination: " + this.options.getDefaultDestination() + "\n"
-                            );
-                        break;
-
-                    case "clear":
-                    case "cls":
-                        // Low tech...
-                        for (int i = 0; i < 80; ++i) this.write("");
-                        break;
-
-                    case "exit":
-                    case "x":
-                        this.write("Cleaning up and exiting...");
-                        this.api.destroy();
-                        return;
-
-                    case "?":
-                    case "help":
-                        this.printHelp();
-                        break;
-
-                    default:
-                        break;
-
-                }
+                this.awaitAutoLogin();
+                this.dispatch(cmd);
             }
 
         } catch (Exception e) {
+            this.endCommand(true);
+            AuditLog.error("command", e);
             write("Exception!" + e.toString());
             e.printStackTrace();
         }